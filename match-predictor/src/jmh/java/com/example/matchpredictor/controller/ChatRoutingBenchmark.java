@@ -0,0 +1,107 @@
+package com.example.matchpredictor.controller;
+
+import com.example.matchpredictor.entity.Match;
+import com.example.matchpredictor.entity.Team;
+import com.example.matchpredictor.repository.TeamRepository;
+import com.example.matchpredictor.service.MatchService;
+import com.example.matchpredictor.service.SyntheticData;
+import com.example.matchpredictor.service.TeamLookupIndex;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing of chat messages in SimpleChatController.generateResponse, one benchmark per route.
+ * Matchups are measured up to team resolution; the prediction itself is an LLM call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatRoutingBenchmark {
+
+    // Teams in the lookup index
+    @Param({"20", "500", "5000"})
+    private int teams;
+
+    private SimpleChatController controller;
+    private TeamLookupIndex teamLookupIndex;
+    private String mentionMessage;
+    private String matchupMessage;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        List<Team> teamList = data.teams(teams);
+        List<Match> upcoming = data.matches(teamList);
+
+        TeamRepository teamRepository = Mockito.mock(TeamRepository.class);
+        Mockito.when(teamRepository.findAllOrderByName()).thenReturn(teamList);
+        teamLookupIndex = new TeamLookupIndex();
+        ReflectionTestUtils.setField(teamLookupIndex, "teamRepository", teamRepository);
+        ReflectionTestUtils.setField(teamLookupIndex, "extraAliases", "");
+        teamLookupIndex.refresh();
+
+        MatchService matchService = new MatchService() {
+            @Override
+            public List<Match> getUpcomingMatches() {
+                return upcoming;
+            }
+        };
+
+        controller = new SimpleChatController();
+        ReflectionTestUtils.setField(controller, "teamLookupIndex", teamLookupIndex);
+        ReflectionTestUtils.setField(controller, "matchService", matchService);
+
+        Team last = teamList.get(teamList.size() - 1);
+        mentionMessage = ("tell me about " + last.getName() + " please").toLowerCase(Locale.ROOT);
+        matchupMessage = ("predict " + teamList.get(0).getName() + " vs " + last.getName() + "?").toLowerCase(Locale.ROOT);
+    }
+
+    @Benchmark
+    public String greeting() {
+        return controller.generateResponse("hello there");
+    }
+
+    @Benchmark
+    public String listTeams() {
+        return controller.generateResponse("list teams");
+    }
+
+    @Benchmark
+    public String upcomingMatches() {
+        return controller.generateResponse("show upcoming matches");
+    }
+
+    @Benchmark
+    public String teamMention() {
+        return controller.generateResponse(mentionMessage);
+    }
+
+    @Benchmark
+    public String unrecognised() {
+        return controller.generateResponse("any news on the transfer window?");
+    }
+
+    @Benchmark
+    public Object matchupResolution() {
+        String[] matchup = controller.parseMatchup(matchupMessage);
+        return new Object[]{teamLookupIndex.resolve(matchup[0]), teamLookupIndex.resolve(matchup[1])};
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.entity.Match;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the vector store document and metadata that storePrediction upserts for each prediction
+ * (the part of the call that runs before any network I/O).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChromaDocumentBenchmark {
+
+    // Predictions in the dataset, one per fixture
+    @Param({"100", "5000"})
+    private int predictions;
+
+    // Length of each prediction's reasoning
+    @Param({"3", "30"})
+    private int reasoningSentences;
+
+    private ChromaDbService chromaDbService;
+    private List<AiPrediction> predictionList;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        List<Match> matches = data.matches(data.teams(predictions));
+        predictionList = new ArrayList<>(predictions);
+        for (int i = 0; i < predictions; i++) {
+            predictionList.add(data.prediction(matches.get(i), i + 1, reasoningSentences));
+        }
+        chromaDbService = new ChromaDbService();
+    }
+
+    @Benchmark
+    public VectorDocument predictionDocument() {
+        next = (next + 1) % predictionList.size();
+        return chromaDbService.toPredictionDocument(predictionList.get(next));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.matchpredictor.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The shared LLM answer parser over synthetic answers, in the requested format and with typical
+ * model drift: whole answers (generate) and the same answers fed token by token (streaming).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    // Length of the REASONING section
+    @Param({"3", "30"})
+    private int reasoningSentences;
+
+    // Extra whitespace, percent signs and a preamble around the fields
+    @Param({"false", "true"})
+    private boolean loose;
+
+    // Distinct answers cycled through, so the parsers don't see one string over and over
+    private static final int ANSWERS = 64;
+
+    private List<String> answers;
+    private List<List<String>> tokenizedAnswers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        answers = new ArrayList<>(ANSWERS);
+        tokenizedAnswers = new ArrayList<>(ANSWERS);
+        for (int i = 0; i < ANSWERS; i++) {
+            String answer = data.aiResponse(reasoningSentences, loose);
+            answers.add(answer);
+            tokenizedAnswers.add(tokenize(answer));
+        }
+    }
+
+    // Word-sized chunks, roughly what Ollama streams
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == ' ' || text.charAt(i) == '\n') {
+                tokens.add(text.substring(start, i));
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    @Benchmark
+    public PredictionResponseParser.ParsedPrediction parse() {
+        next = (next + 1) % ANSWERS;
+        return PredictionResponseParser.parse(answers.get(next));
+    }
+
+    @Benchmark
+    public PredictionResponseParser.ParsedPrediction parseStreamed() {
+        next = (next + 1) % ANSWERS;
+        PredictionResponseParser parser = new PredictionResponseParser();
+        for (String token : tokenizedAnswers.get(next)) {
+            parser.accept(token);
+        }
+        return parser.finish();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.Match;
+import com.example.matchpredictor.entity.Team;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RAG prompt assembly: head-to-head and form formatting, the RagContext text and the final prompt,
+ * unlimited and fitted into the default token budget.
+ * MatchStatsService is replaced by precomputed synthetic stats, so only the formatting is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptBenchmark {
+
+    // Teams (and fixtures) in the dataset
+    @Param({"20", "500"})
+    private int teams;
+
+    // Past matches in the vector store history and similar predictions retrieved per prompt
+    @Param({"3", "20"})
+    private int retrievedDocuments;
+
+    private AiPredictionService aiPredictionService;
+    private List<Match> matches;
+    private List<String> historicalContexts;
+    private List<List<String>> similarPredictions;
+    private List<String> retrievedContexts;
+    private List<RagContext> ragContexts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        List<Team> teamList = data.teams(teams);
+        matches = data.matches(teamList);
+
+        Map<Integer, List<MatchStatsService.FormEntry>> form = new HashMap<>();
+        Map<Integer, MatchStatsService.HeadToHeadRecord> headToHead = new HashMap<>();
+        for (Team team : teamList) {
+            form.put(team.getId(), data.recentForm(teamList));
+            headToHead.put(team.getId(), data.headToHead());
+        }
+        MatchStatsService matchStatsService = new MatchStatsService() {
+            @Override
+            public List<FormEntry> getRecentForm(Integer teamId) {
+                return form.get(teamId);
+            }
+
+            @Override
+            public HeadToHeadRecord getHeadToHead(Integer teamId, Integer opponentId) {
+                return headToHead.get(teamId);
+            }
+        };
+
+        aiPredictionService = new AiPredictionService();
+        ReflectionTestUtils.setField(aiPredictionService, "matchStatsService", matchStatsService);
+        ReflectionTestUtils.setField(aiPredictionService, "promptTokenBudget", 1536);
+        RagPipelineMetrics metrics = new RagPipelineMetrics();
+        ReflectionTestUtils.setField(metrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(metrics, "observationRegistry", ObservationRegistry.NOOP);
+        ReflectionTestUtils.setField(aiPredictionService, "ragPipelineMetrics", metrics);
+
+        historicalContexts = new ArrayList<>();
+        similarPredictions = new ArrayList<>();
+        retrievedContexts = new ArrayList<>();
+        ragContexts = new ArrayList<>();
+        for (Match match : matches) {
+            StringBuilder history = new StringBuilder("=== HISTORICAL MATCHES ===\n");
+            List<String> similar = new ArrayList<>();
+            for (int i = 0; i < retrievedDocuments; i++) {
+                history.append(String.format("Match: %s %d - %d %s in %s. %s\n",
+                        match.getHomeTeam().getName(), i % 4, (i + 1) % 3, match.getAwayTeam().getName(),
+                        match.getLeague(), data.reasoning(1)));
+                similar.add(data.reasoning(2));
+            }
+            historicalContexts.add(history.toString());
+            similarPredictions.add(similar);
+            RagContext ragContext = aiPredictionService.buildRagContext(match, history.toString(), similar);
+            ragContexts.add(ragContext);
+            retrievedContexts.add(ragContext.toPromptText());
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % matches.size();
+        return next;
+    }
+
+    @Benchmark
+    public String headToHeadStats() {
+        return aiPredictionService.getHeadToHeadStats(matches.get(nextIndex()));
+    }
+
+    @Benchmark
+    public String teamForm() {
+        return aiPredictionService.getTeamForm(matches.get(nextIndex()).getHomeTeam());
+    }
+
+    // Retrieval formatting: all sources assembled into the context text
+    @Benchmark
+    public String ragContextText() {
+        int i = nextIndex();
+        return aiPredictionService.buildRagContext(matches.get(i), historicalContexts.get(i), similarPredictions.get(i))
+                .toPromptText();
+    }
+
+    @Benchmark
+    public String createRagPrompt() {
+        int i = nextIndex();
+        return aiPredictionService.createRAGPrompt(matches.get(i), retrievedContexts.get(i));
+    }
+
+    // Same prompt with the context fitted into prediction.prompt.token-budget (trimmed once documents pile up)
+    @Benchmark
+    public String budgetedPrompt() {
+        int i = nextIndex();
+        return aiPredictionService.buildPrompt(matches.get(i), ragContexts.get(i));
+    }
+}
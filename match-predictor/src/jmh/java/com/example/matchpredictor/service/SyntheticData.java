@@ -0,0 +1,120 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.entity.Match;
+import com.example.matchpredictor.entity.Team;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic teams, matches, form and LLM answers for the benchmarks.
+ * The same seed gives the same dataset, so runs on different commits are comparable.
+ */
+public final class SyntheticData {
+
+    // Chosen so no name contains a word the chat router reacts to ("hi", "help", "teams", ...)
+    private static final String[] CITIES = {
+            "Aldmoor", "Brenton", "Caldera", "Dunmore", "Eastvale", "Fairport", "Glenrock", "Harlow",
+            "Ironbay", "Kestrel", "Lowmarsh", "Marston", "Norwell", "Oakford", "Pembury", "Queensby",
+            "Ravensdale", "Stonebury", "Tarvos", "Upton", "Valemont", "Westerby", "Yarrow", "Zennor"
+    };
+    private static final String[] SUFFIXES = {"United", "City", "Rovers", "Athletic", "Wanderers", "Town", "Albion", "FC"};
+
+    private static final String[] SENTENCES = {
+            "The head-to-head record shows the home side winning three of the last five meetings.",
+            "Recent form favours the visitors, who are unbeaten in their last four league games.",
+            "Both teams average more than two goals per game in the retrieved matches.",
+            "The retrieved data shows the home team conceding early in most of its defeats.",
+            "Similar past predictions for this fixture leaned towards a narrow home win."
+    };
+
+    private final Random random;
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public List<Team> teams(int count) {
+        List<Team> teams = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = CITIES[i % CITIES.length] + " " + SUFFIXES[(i / CITIES.length) % SUFFIXES.length];
+            if (i >= CITIES.length * SUFFIXES.length) {
+                name += " " + (i / (CITIES.length * SUFFIXES.length) + 1);
+            }
+            Team team = new Team(name, i % 2 == 0 ? "England" : "Spain");
+            team.setId(i + 1);
+            team.setFoundedYear(1870 + random.nextInt(130));
+            teams.add(team);
+        }
+        return teams;
+    }
+
+    // One upcoming fixture per pair of neighbouring teams
+    public List<Match> matches(List<Team> teams) {
+        List<Match> matches = new ArrayList<>(teams.size());
+        for (int i = 0; i < teams.size(); i++) {
+            Match match = new Match(teams.get(i), teams.get((i + 1) % teams.size()),
+                    LocalDateTime.of(2026, 1, 1, 15, 0).plusDays(i), i % 2 == 0 ? "Premier League" : "La Liga");
+            match.setId(i + 1);
+            match.setVenue(teams.get(i).getName() + " Stadium");
+            match.setStatus("SCHEDULED");
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    public List<MatchStatsService.FormEntry> recentForm(List<Team> teams) {
+        List<MatchStatsService.FormEntry> form = new ArrayList<>(MatchStatsService.FORM_LENGTH);
+        for (int i = 0; i < MatchStatsService.FORM_LENGTH; i++) {
+            Team opponent = teams.get(random.nextInt(teams.size()));
+            form.add(new MatchStatsService.FormEntry(i + 1, LocalDateTime.of(2025, 12, 1, 15, 0).minusWeeks(i),
+                    opponent.getName(), random.nextInt(4), random.nextInt(4)));
+        }
+        return form;
+    }
+
+    public MatchStatsService.HeadToHeadRecord headToHead() {
+        int wins = random.nextInt(8);
+        int draws = random.nextInt(5);
+        int losses = random.nextInt(8);
+        int matches = wins + draws + losses;
+        return new MatchStatsService.HeadToHeadRecord(matches, wins, draws, losses,
+                matches * 2 - random.nextInt(matches + 1), matches + random.nextInt(matches + 1));
+    }
+
+    public String reasoning(int sentences) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            if (i > 0) text.append(' ');
+            text.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        return text.toString();
+    }
+
+    // An answer in the format the RAG prompt asks for; loose adds the drift models produce in practice
+    public String aiResponse(int reasoningSentences, boolean loose) {
+        int home = 20 + random.nextInt(50);
+        int draw = random.nextInt(100 - home);
+        int away = 100 - home - draw;
+        if (!loose) {
+            return "HOME_WIN: " + home + "\nDRAW: " + draw + "\nAWAY_WIN: " + away
+                    + "\nREASONING: " + reasoning(reasoningSentences);
+        }
+        return "Here is my analysis.\n\n  HOME_WIN:  " + home + "%\n  DRAW: " + draw + " %\nAWAY_WIN:" + away + "%\n"
+                + "REASONING:\n" + reasoning(reasoningSentences).replace(". ", ".\n");
+    }
+
+    public AiPrediction prediction(Match match, int id, int reasoningSentences) {
+        AiPrediction prediction = new AiPrediction(match, new BigDecimal("45.00"), new BigDecimal("30.00"),
+                new BigDecimal("25.00"), reasoning(reasoningSentences));
+        prediction.setId(id);
+        prediction.setModelVersion("llama3.2-RAG");
+        prediction.setConfidenceScore(new BigDecimal("0.75"));
+        prediction.setCreatedAt(LocalDateTime.of(2025, 12, 20, 12, 0));
+        return prediction;
+    }
+}
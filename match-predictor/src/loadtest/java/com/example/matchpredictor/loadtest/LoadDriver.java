@@ -0,0 +1,171 @@
+package com.example.matchpredictor.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load driver for the prediction endpoints.
+ * Ramps through stages of concurrent users (each user sends its next request as soon as the
+ * previous one returns) and prints requests/sec, errors and p50/p95/p99 latency per stage.
+ *
+ * System properties (all optional):
+ *   load.url=http://localhost:8080     application under test
+ *   load.scenario=mixed                predict | contextual | chat | mixed
+ *   load.users=1,5,10,20               concurrent users per stage
+ *   load.stage-seconds=30              length of each stage
+ *   load.timeout-seconds=120           per-request timeout (counted as an error)
+ */
+public class LoadDriver {
+
+    private static final List<String> SCENARIOS = List.of("predict", "contextual", "chat");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String scenario;
+    private final Duration timeout;
+    private List<Integer> matchIds;
+    private List<String> matchups;
+
+    public LoadDriver(String baseUrl, String scenario, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.scenario = scenario;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String scenario = System.getProperty("load.scenario", "mixed");
+        if (!scenario.equals("mixed") && !SCENARIOS.contains(scenario)) {
+            throw new IllegalArgumentException("Unknown scenario " + scenario + ", expected one of " + SCENARIOS + " or mixed");
+        }
+        int[] users = Arrays.stream(System.getProperty("load.users", "1,5,10,20").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        Duration stageLength = Duration.ofSeconds(Long.getLong("load.stage-seconds", 30));
+
+        LoadDriver driver = new LoadDriver(System.getProperty("load.url", "http://localhost:8080"), scenario,
+                Duration.ofSeconds(Long.getLong("load.timeout-seconds", 120)));
+        driver.prepare();
+
+        System.out.printf("Scenario %s, %d matches, stages %s x %ds%n", scenario, driver.matchIds.size(),
+                Arrays.toString(users), stageLength.toSeconds());
+        System.out.printf("%6s %9s %8s %8s %9s %9s %9s %9s%n",
+                "users", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (int stageUsers : users) {
+            StageResult result = driver.runStage(stageUsers, stageLength);
+            System.out.printf("%6d %9d %8d %8.2f %9.1f %9.1f %9.1f %9.1f%n", stageUsers,
+                    result.requests(), result.errors(), result.requestsPerSecond(),
+                    result.percentile(50), result.percentile(95), result.percentile(99), result.percentile(100));
+        }
+    }
+
+    // Seed the sample teams and matches and pick up the fixtures to predict
+    public void prepare() throws Exception {
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/initialize-data")).GET());
+
+        JsonNode matches = objectMapper.readTree(
+                send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/predictions/upcoming-matches")).GET()).body());
+        matchIds = new ArrayList<>();
+        matchups = new ArrayList<>();
+        for (JsonNode match : matches) {
+            matchIds.add(match.path("id").asInt());
+            matchups.add(match.path("homeTeam").path("name").asText() + " vs " + match.path("awayTeam").path("name").asText());
+        }
+        if (matchIds.isEmpty()) {
+            throw new IllegalStateException("No upcoming matches at " + baseUrl);
+        }
+    }
+
+    public StageResult runStage(int users, Duration length) {
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        // Request rates are bounded by the LLM (tens per second), so a synchronized list is plenty
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger errors = new AtomicInteger();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < users; u++) {
+                int user = u;
+                pool.execute(() -> {
+                    while (System.nanoTime() < end) {
+                        long sent = System.nanoTime();
+                        if (sendOne(user)) {
+                            latencies.add(System.nanoTime() - sent);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new StageResult(sorted.length + errors.get(), errors.get(), (System.nanoTime() - start) / 1e9, sorted);
+    }
+
+    private boolean sendOne(int user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String kind = scenario.equals("mixed") ? SCENARIOS.get(random.nextInt(SCENARIOS.size())) : scenario;
+        int match = random.nextInt(matchIds.size());
+        try {
+            HttpRequest.Builder request = switch (kind) {
+                case "predict" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/predictions/generate/" + matchIds.get(match)))
+                        .POST(HttpRequest.BodyPublishers.noBody());
+                case "contextual" -> json("/api/contextual/predict", Map.of(
+                        "matchId", matchIds.get(match),
+                        "sessionId", "load-user-" + user,
+                        "tone", "brief",
+                        "additionalContext", "Focus on recent form"));
+                default -> json("/api/chat/message", Map.of("message", "Predict " + matchups.get(match)));
+            };
+            HttpResponse<String> response = send(request);
+            // The chat endpoint answers 200 with an error message when the prediction fails
+            return response.statusCode() == 200 && !response.body().contains("Error generating");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private HttpRequest.Builder json(String path, Map<String, Object> body) throws Exception {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.timeout(timeout).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public record StageResult(int requests, int errors, double seconds, long[] sortedLatencyNanos) {
+
+        public double requestsPerSecond() {
+            return (requests - errors) / seconds;
+        }
+
+        // Nearest-rank percentile in milliseconds (100 = max)
+        public double percentile(double p) {
+            if (sortedLatencyNanos.length == 0) return 0;
+            int rank = (int) Math.ceil(p / 100 * sortedLatencyNanos.length);
+            return sortedLatencyNanos[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
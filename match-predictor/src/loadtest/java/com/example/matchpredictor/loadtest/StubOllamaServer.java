@@ -0,0 +1,227 @@
+package com.example.matchpredictor.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for an Ollama server, so the prediction endpoints can be load tested without a GPU.
+ * Answers POST /api/chat and /api/generate (blocking and streaming) with canned
+ * HOME_WIN / DRAW / AWAY_WIN / REASONING answers, or the JSON object when format=json is asked for,
+ * paced like a real model:
+ * a fixed time to the first token, then a steady number of tokens per second.
+ *
+ * System properties (all optional):
+ *   stub.port=11435            port to listen on
+ *   stub.first-token-ms=300    delay before the first token (prompt evaluation)
+ *   stub.tokens-per-second=40  generation speed; 0 answers instantly
+ *   stub.reasoning-sentences=4 length of the REASONING section
+ */
+public class StubOllamaServer {
+
+    private static final String[] SENTENCES = {
+            "Based on the retrieved head-to-head record the home side has won most recent meetings.",
+            "The recent form shown in the data favours the visitors, who are unbeaten in four.",
+            "Both teams have scored in the majority of the retrieved matches.",
+            "Similar past predictions for this fixture leaned towards a narrow home win.",
+            "The retrieved context shows the away side conceding late goals in its defeats.",
+            "Home advantage has been significant in this fixture according to the data."
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long firstTokenMs;
+    private final double tokensPerSecond;
+    private final int reasoningSentences;
+    private final AtomicLong requests = new AtomicLong();
+
+    public StubOllamaServer(long firstTokenMs, double tokensPerSecond, int reasoningSentences) {
+        this.firstTokenMs = firstTokenMs;
+        this.tokensPerSecond = tokensPerSecond;
+        this.reasoningSentences = reasoningSentences;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("stub.port", 11435);
+        StubOllamaServer stub = new StubOllamaServer(
+                Long.getLong("stub.first-token-ms", 300),
+                Double.parseDouble(System.getProperty("stub.tokens-per-second", "40")),
+                Integer.getInteger("stub.reasoning-sentences", 4));
+
+        HttpServer server = stub.start(port);
+        System.out.println("✅ Stub Ollama listening on http://localhost:" + server.getAddress().getPort()
+                + " (first token " + stub.firstTokenMs + " ms, " + stub.tokensPerSecond + " tokens/s)");
+    }
+
+    public HttpServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 512);
+        // Each request sleeps for most of its life, so one virtual thread per request
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/chat", exchange -> handle(exchange, true));
+        server.createContext("/api/generate", exchange -> handle(exchange, false));
+        server.createContext("/api/tags", exchange -> writeJson(exchange, 200, "{\"models\":[{\"name\":\"llama3.2\"}]}"));
+        server.createContext("/", exchange -> writeJson(exchange, 200, "{\"status\":\"Ollama is running\"}"));
+        server.start();
+        return server;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange, boolean chat) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                writeJson(exchange, 405, "{\"error\":\"method not allowed\"}");
+                return;
+            }
+            requests.incrementAndGet();
+
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String model = request.path("model").asText("llama3.2");
+            boolean stream = request.path("stream").asBoolean(true); // Ollama streams unless told not to
+            boolean json = "json".equals(request.path("format").asText())
+                    || "json".equals(request.path("options").path("format").asText());
+            List<String> tokens = tokenize(json ? cannedJsonAnswer() : cannedAnswer());
+
+            if (stream) {
+                streamAnswer(exchange, chat, model, tokens);
+            } else {
+                sleep(firstTokenMs + generationMillis(tokens.size()));
+                writeJson(exchange, 200, objectMapper.writeValueAsString(
+                        chunk(chat, model, String.join("", tokens), true, tokens.size())));
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Stub request failed: " + e.getMessage());
+        }
+    }
+
+    // NDJSON, one token per line, then a final done=true line
+    private void streamAnswer(HttpExchange exchange, boolean chat, String model, List<String> tokens) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        sleep(firstTokenMs);
+        long tokenNanos = tokensPerSecond > 0 ? (long) (1_000_000_000L / tokensPerSecond) : 0;
+        long next = System.nanoTime();
+        for (String token : tokens) {
+            writeLine(out, chunk(chat, model, token, false, 0));
+            next += tokenNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+        }
+        writeLine(out, chunk(chat, model, "", true, tokens.size()));
+    }
+
+    private ObjectNode chunk(boolean chat, String model, String content, boolean done, int evalCount) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("model", model);
+        node.put("created_at", Instant.now().toString());
+        if (chat) {
+            ObjectNode message = node.putObject("message");
+            message.put("role", "assistant");
+            message.put("content", content);
+        } else {
+            node.put("response", content);
+        }
+        node.put("done", done);
+        if (done) {
+            node.put("eval_count", evalCount);
+            node.put("eval_duration", generationMillis(evalCount) * 1_000_000);
+            node.put("prompt_eval_duration", firstTokenMs * 1_000_000);
+        }
+        return node;
+    }
+
+    // The text format AiPredictionService asks for, probabilities summing to 100
+    private String cannedAnswer() {
+        int[] probabilities = probabilities();
+        return "HOME_WIN: " + probabilities[0] + "\nDRAW: " + probabilities[1] + "\nAWAY_WIN: " + probabilities[2]
+                + "\nREASONING: " + reasoning();
+    }
+
+    // The JSON object of StructuredPredictionDecoder.SCHEMA_INSTRUCTIONS
+    private String cannedJsonAnswer() {
+        int[] probabilities = probabilities();
+        ObjectNode answer = objectMapper.createObjectNode();
+        answer.put("home_win", probabilities[0]);
+        answer.put("draw", probabilities[1]);
+        answer.put("away_win", probabilities[2]);
+        answer.putArray("cited_facts").add(SENTENCES[ThreadLocalRandom.current().nextInt(SENTENCES.length)]);
+        answer.put("reasoning", reasoning());
+        answer.put("confidence", 0.6);
+        return answer.toPrettyString();
+    }
+
+    private int[] probabilities() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int home = 25 + random.nextInt(45);
+        int draw = 10 + random.nextInt(Math.max(1, 90 - home - 10));
+        return new int[]{home, draw, 100 - home - draw};
+    }
+
+    private String reasoning() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder reasoning = new StringBuilder();
+        for (int i = 0; i < reasoningSentences; i++) {
+            if (i > 0) reasoning.append(' ');
+            reasoning.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        return reasoning.toString();
+    }
+
+    // Word-sized tokens (each keeps its leading space), close enough to a real tokenizer's count
+    private List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == ' ' || text.charAt(i) == '\n') {
+                tokens.add(text.substring(start, i));
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    private long generationMillis(int tokens) {
+        return tokensPerSecond > 0 ? (long) (tokens * 1000 / tokensPerSecond) : 0;
+    }
+
+    private void writeLine(OutputStream out, JsonNode node) throws IOException {
+        out.write((objectMapper.writeValueAsString(node) + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void writeJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        sleep(millis, 0);
+    }
+
+    private static void sleep(long millis, int nanos) {
+        try {
+            Thread.sleep(millis, nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
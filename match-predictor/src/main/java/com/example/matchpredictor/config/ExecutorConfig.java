@@ -0,0 +1,95 @@
+package com.example.matchpredictor.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${prediction.jobs.pool-size:4}")
+    private int jobPoolSize;
+
+    @Value("${prediction.jobs.queue-capacity:100}")
+    private int jobQueueCapacity;
+
+    @Value("${prediction.jobs.callback.pool-size:2}")
+    private int callbackPoolSize;
+
+    @Value("${prediction.batch.parallelism:8}")
+    private int batchParallelism;
+
+    // Bounded worker pool that drains the async prediction queue (size it against the Ollama host)
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor predictionJobExecutor() {
+        return new ThreadPoolExecutor(
+                jobPoolSize,
+                jobPoolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(jobQueueCapacity),
+                namedThreadFactory("prediction-job-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    // Job callbacks are posted here, so a slow receiver never holds a prediction worker
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor predictionCallbackExecutor() {
+        return new ThreadPoolExecutor(
+                callbackPoolSize,
+                callbackPoolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(jobQueueCapacity),
+                namedThreadFactory("prediction-callback-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    // Streaming (SSE) predictions block on the token stream for their whole lifetime, one virtual thread each
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService predictionStreamExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // RAG retrieval fan-out: each source (ChromaDB, head-to-head, form) waits on its own virtual thread;
+    // the SQL sources are capped by MatchStatsService so they cannot take the whole connection pool
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService ragRetrievalExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Per-match retrieval/generation during batch predictions (bounded so the DB pool is not exhausted)
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService batchPredictionExecutor() {
+        return Executors.newFixedThreadPool(batchParallelism, namedThreadFactory("batch-prediction-"));
+    }
+
+    // Single background worker for the startup vector store sync
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService vectorSyncExecutor() {
+        return Executors.newSingleThreadExecutor(namedThreadFactory("vector-sync-"));
+    }
+
+    // Single background worker for the prediction evaluation backfill
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService evaluationExecutor() {
+        return Executors.newSingleThreadExecutor(namedThreadFactory("prediction-evaluation-"));
+    }
+
+    private ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
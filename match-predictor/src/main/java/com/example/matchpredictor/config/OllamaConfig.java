@@ -1,21 +1,73 @@
 package com.example.matchpredictor.config;
 
-import org. springframework.ai.ollama.OllamaChatClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.ai.ollama.OllamaChatClient;
 import org.springframework.ai.ollama.api.OllamaApi;
 import org.springframework.ai.ollama.api.OllamaOptions;
-import org. springframework.context.annotation.Bean;
-import org.springframework.context. annotation.Configuration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
 
 @Configuration
 public class OllamaConfig {
 
+    @Value("${spring.ai.ollama.base-url:http://localhost:11434}")
+    private String baseUrl;
+
+    @Value("${spring.ai.ollama.chat.model:llama3.2}")
+    private String model;
+
+    @Value("${ollama.client.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${ollama.client.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${ollama.client.read-timeout-ms:180000}")
+    private long readTimeoutMs;
+
+    @Value("${ollama.client.keep-alive-ms:60000}")
+    private long keepAliveMs;
+
+    // One pooled HTTP client for every Ollama call, so predictions reuse warm keep-alive connections
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient ollamaHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMs))
+                .build();
+    }
+
     @Bean
-    public OllamaApi ollamaApi() {
-        return new OllamaApi("http://localhost:11434");
+    public OllamaApi ollamaApi(CloseableHttpClient ollamaHttpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(ollamaHttpClient);
+        requestFactory.setConnectionRequestTimeout((int) connectTimeoutMs);
+
+        return new OllamaApi(baseUrl, RestClient.builder().requestFactory(requestFactory));
     }
 
     @Bean
     public OllamaChatClient ollamaChatClient(OllamaApi ollamaApi) {
-        return new OllamaChatClient(ollamaApi);
+        // Without explicit default options the client falls back to the library's default model
+        return new OllamaChatClient(ollamaApi)
+                .withDefaultOptions(OllamaOptions.create().withModel(model));
     }
-}
\ No newline at end of file
+}
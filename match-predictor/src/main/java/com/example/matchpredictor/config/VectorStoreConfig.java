@@ -0,0 +1,60 @@
+package com.example.matchpredictor.config;
+
+import com.example.matchpredictor.service.ChromaVectorStore;
+import com.example.matchpredictor.service.EmbeddedVectorStore;
+import com.example.matchpredictor.service.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class VectorStoreConfig {
+
+    // chroma | embedded | auto (ChromaDB when reachable, otherwise the embedded store)
+    @Value("${vectorstore.type:auto}")
+    private String type;
+
+    @Value("${chroma.url:http://localhost:8000}")
+    private String chromaUrl;
+
+    @Value("${vectorstore.embedded.path:./data/vectors}")
+    private String embeddedPath;
+
+    @Value("${vectorstore.embedded.dimensions:512}")
+    private int embeddedDimensions;
+
+    @Value("${vectorstore.embedded.flush-interval-ms:10000}")
+    private long embeddedFlushIntervalMs;
+
+    // destroy method inferred: EmbeddedVectorStore.close() writes pending changes on shutdown
+    @Bean
+    public VectorStore vectorStore() {
+        switch (type.toLowerCase()) {
+            case "embedded":
+                return embeddedVectorStore();
+            case "chroma": {
+                ChromaVectorStore chroma = new ChromaVectorStore(chromaUrl);
+                chroma.connect();
+                return chroma;
+            }
+            default: {
+                ChromaVectorStore chroma = new ChromaVectorStore(chromaUrl);
+                chroma.connect();
+                if (chroma.isAvailable()) {
+                    return chroma;
+                }
+                System.out.println("ℹ️ ChromaDB unreachable - falling back to the embedded vector store");
+                return embeddedVectorStore();
+            }
+        }
+    }
+
+    private EmbeddedVectorStore embeddedVectorStore() {
+        EmbeddedVectorStore store = new EmbeddedVectorStore(
+                Path.of(embeddedPath), embeddedDimensions, embeddedFlushIntervalMs);
+        store.open();
+        return store;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.matchpredictor.controller;
 
 import com.example.matchpredictor.service.ChromaDbService;
+import com.example.matchpredictor.service.PredictionAnalyticsService;
 import org.springframework.beans. factory.annotation. Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework. web.bind.annotation.*;
@@ -16,6 +17,9 @@ public class ChromaDbController {
     @Autowired
     private ChromaDbService chromaDbService;
 
+    @Autowired
+    private PredictionAnalyticsService predictionAnalyticsService;
+
 
      //Check ChromaDB connection status
     @GetMapping("/status")
@@ -97,7 +101,9 @@ public class ChromaDbController {
             return ResponseEntity.ok("ChromaDB not connected");
         }
 
-        chromaDbService.generateAnalytics();
+        // Analytics are kept up to date incrementally; this re-seeds them from PostgreSQL and writes them now
+        predictionAnalyticsService.reload();
+        predictionAnalyticsService.publish();
         return ResponseEntity.ok("Analytics regenerated successfully");
     }
 }
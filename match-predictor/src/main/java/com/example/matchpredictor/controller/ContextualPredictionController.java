@@ -1,16 +1,25 @@
 package com.example.matchpredictor.controller;
 
 import com.example.matchpredictor.dto.ContextualPredictionRequest;
+import com.example.matchpredictor.dto.CursorPage;
 import com.example. matchpredictor. entity.AiPrediction;
 import com.example.matchpredictor.entity.ConversationContext;
 import com.example.matchpredictor.service.ContextualAiService;
+import com.example.matchpredictor.service.NdjsonExportService;
+import com.example.matchpredictor.service.OllamaGateway;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory. annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org. springframework.http.ResponseEntity;
 import org.springframework.web. bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util. List;
 import java.util. Map;
+import java.util.concurrent.ExecutorService;
 
 @RestController
 @RequestMapping("/api/contextual")
@@ -20,6 +29,19 @@ public class ContextualPredictionController {
     @Autowired
     private ContextualAiService contextualAiService;
 
+    @Autowired
+    private NdjsonExportService ndjsonExportService;
+
+    @Autowired
+    private OllamaGateway ollamaGateway;
+
+    @Autowired
+    @Qualifier("predictionStreamExecutor")
+    private ExecutorService predictionStreamExecutor;
+
+    @Value("${prediction.stream.timeout-ms:300000}")
+    private long streamTimeoutMs;
+
     //Generate prediction with context (memory + parameters)
     @PostMapping("/predict")
     public ResponseEntity<? > generateContextualPrediction(
@@ -30,11 +52,20 @@ public class ContextualPredictionController {
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "error", e.getMessage(),
-                    "tip", "Make sure Ollama is running with llama3.2 model"
+                    "tip", "Make sure Ollama is running with " + ollamaGateway.getModel() + " model"
             ));
         }
     }
 
+    //Same as /predict, but streams tokens and parsed fields as Server-Sent Events
+    @PostMapping(value = "/predict/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamContextualPrediction(@Valid @RequestBody ContextualPredictionRequest request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        predictionStreamExecutor.execute(() ->
+                contextualAiService.streamContextualPrediction(request, new SsePredictionListener(emitter, ollamaGateway.getModel())));
+        return emitter;
+    }
+
     //Get conversation history for a session (shows AI memory)
     @GetMapping("/history/{sessionId}")
     public ResponseEntity<List<ConversationContext>> getConversationHistory(
@@ -43,6 +74,26 @@ public class ContextualPredictionController {
         return ResponseEntity. ok(history);
     }
 
+    //Get one page of a session's history, newest first (pass nextCursor back as cursor)
+    @GetMapping("/history/{sessionId}/page")
+    public ResponseEntity<?> getConversationHistoryPage(
+            @PathVariable String sessionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(contextualAiService.getConversationHistoryPage(sessionId, cursor, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    //Stream a session's whole history as NDJSON, oldest first
+    @GetMapping(value = "/history/{sessionId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportConversationHistory(@PathVariable String sessionId) {
+        StreamingResponseBody body = out -> ndjsonExportService.exportConversationHistory(sessionId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     //Get available tones and roles
     @GetMapping("/options")
     public ResponseEntity<Map<String, List<String>>> getOptions() {
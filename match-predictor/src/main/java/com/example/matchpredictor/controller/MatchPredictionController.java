@@ -1,17 +1,29 @@
 package com.example.matchpredictor.controller;
 
+import com.example.matchpredictor.dto.CursorPage;
+import com.example.matchpredictor.dto.PredictionJob;
 import com.example.matchpredictor.entity.AiPrediction;
 import com.example.matchpredictor.entity.Match;
 import com.example.matchpredictor.entity.Team;
 import com.example.matchpredictor.service.AiPredictionService;
+import com.example.matchpredictor.service.BatchPredictionService;
 import com.example.matchpredictor.service.MatchService;
+import com.example.matchpredictor.service.NdjsonExportService;
+import com.example.matchpredictor.service.PredictionEvaluationService;
+import com.example.matchpredictor.service.PredictionJobService;
 import com.example.matchpredictor.service.TeamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/predictions")
@@ -26,6 +38,18 @@ public class MatchPredictionController {
     @Autowired
     private TeamService teamService;
 
+    @Autowired
+    private PredictionJobService predictionJobService;
+
+    @Autowired
+    private BatchPredictionService batchPredictionService;
+
+    @Autowired
+    private NdjsonExportService ndjsonExportService;
+
+    @Autowired
+    private PredictionEvaluationService predictionEvaluationService;
+
     // Generate prediction for a match
     @PostMapping("/generate/{matchId}")
     public ResponseEntity<?> generatePrediction(@PathVariable Integer matchId) {
@@ -37,6 +61,51 @@ public class MatchPredictionController {
         }
     }
 
+    // Queue a prediction job and return its id immediately (poll /jobs/{jobId} for the result)
+    @PostMapping("/generate/{matchId}/async")
+    public ResponseEntity<?> submitPredictionJob(
+            @PathVariable Integer matchId,
+            @RequestParam(required = false) String callbackUrl) {
+        try {
+            PredictionJob job = predictionJobService.submit(matchId, callbackUrl);
+            return ResponseEntity.accepted().body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + e.getMessage());
+        }
+    }
+
+    // Get status (and result once completed) of a prediction job
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getPredictionJob(@PathVariable String jobId) {
+        Optional<PredictionJob> job = predictionJobService.getJob(jobId);
+
+        if (job.isPresent()) {
+            return ResponseEntity.ok(job.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Queue predictions for a whole matchday (date window and/or league); poll /jobs/{jobId} for the result
+    @PostMapping("/batch")
+    public ResponseEntity<?> generateBatchPredictions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String league,
+            @RequestParam(required = false) String callbackUrl) {
+        try {
+            List<Match> matches = batchPredictionService.findMatchday(from, to, league);
+            PredictionJob job = predictionJobService.submitBatch(matches, callbackUrl);
+            return ResponseEntity.accepted().body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Error: " + e.getMessage());
+        }
+    }
+
     // Get predictions for a match
     @GetMapping("/match/{matchId}")
     public ResponseEntity<List<AiPrediction>> getPredictionsForMatch(@PathVariable Integer matchId) {
@@ -56,6 +125,13 @@ public class MatchPredictionController {
         }
     }
 
+    // Score predictions of finished matches that were never evaluated (runs in the background)
+    @PostMapping("/evaluate/backfill")
+    public ResponseEntity<String> backfillEvaluations() {
+        predictionEvaluationService.startBackfill();
+        return ResponseEntity.accepted().body("Evaluation backfill started");
+    }
+
     // Get all predictions
     @GetMapping("/all")
     public ResponseEntity<List<AiPrediction>> getAllPredictions() {
@@ -63,6 +139,25 @@ public class MatchPredictionController {
         return ResponseEntity.ok(predictions);
     }
 
+    // Get one page of predictions, newest first (pass nextCursor back as cursor)
+    @GetMapping("/all/page")
+    public ResponseEntity<?> getPredictionsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(aiPredictionService.getPredictionsPage(cursor, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    // Stream every prediction as NDJSON (one JSON object per line, written as rows are read)
+    @GetMapping(value = "/all/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPredictions() {
+        StreamingResponseBody body = out -> ndjsonExportService.exportPredictions(out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     // Get prediction accuracy stats
     @GetMapping("/stats")
     public ResponseEntity<String> getPredictionStats() {
@@ -77,10 +172,34 @@ public class MatchPredictionController {
         return ResponseEntity.ok(matches);
     }
 
+    // Get one page of upcoming matches by kick-off (pass nextCursor back as cursor)
+    @GetMapping("/upcoming-matches/page")
+    public ResponseEntity<?> getUpcomingMatchesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(matchService.getUpcomingMatchesPage(cursor, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     // Get all teams (for creating matches)
     @GetMapping("/teams")
     public ResponseEntity<List<Team>> getAllTeams() {
         List<Team> teams = teamService.getAllTeams();
         return ResponseEntity.ok(teams);
     }
+
+    // Get one page of teams by name (pass nextCursor back as cursor)
+    @GetMapping("/teams/page")
+    public ResponseEntity<?> getTeamsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(teamService.getTeamsPage(cursor, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
 }
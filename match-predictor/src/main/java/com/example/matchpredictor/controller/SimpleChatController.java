@@ -1,19 +1,25 @@
 package com.example.matchpredictor.controller;
 
 import com.example.matchpredictor.service.MatchService;
-import com.example.matchpredictor.service.TeamService;
+import com.example.matchpredictor.service.TeamLookupIndex;
 import com.example.matchpredictor.service.AiPredictionService;
+import com.example.matchpredictor.service.OllamaGateway;
 import com.example.matchpredictor.entity.Match;
 import com.example.matchpredictor.entity.Team;
 import com.example.matchpredictor.entity.AiPrediction;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,11 +30,21 @@ public class SimpleChatController {
     private MatchService matchService;
 
     @Autowired
-    private TeamService teamService;
+    private TeamLookupIndex teamLookupIndex;
 
     @Autowired
     private AiPredictionService aiPredictionService;
 
+    @Autowired
+    private OllamaGateway ollamaGateway;
+
+    @Autowired
+    @Qualifier("predictionStreamExecutor")
+    private ExecutorService predictionStreamExecutor;
+
+    @Value("${prediction.stream.timeout-ms:300000}")
+    private long streamTimeoutMs;
+
     @PostMapping("/message")
     public ResponseEntity<Map<String, String>> sendMessage(@RequestBody Map<String, String> request) {
         String message = request.get("message");
@@ -46,7 +62,76 @@ public class SimpleChatController {
         ));
     }
 
-    private String generateResponse(String message) {
+    /**
+     * Streaming variant of /message (Server-Sent Events).
+     * Match predictions stream the model's tokens as they are generated and end with
+     * the formatted "response"; every other message is answered with a single "response" event.
+     */
+    @PostMapping(value = "/message/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessage(@RequestBody Map<String, String> request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        String message = request.get("message");
+
+        predictionStreamExecutor.execute(() -> {
+            SsePredictionListener sse = new SsePredictionListener(emitter, ollamaGateway.getModel());
+
+            if (message == null || message.trim().isEmpty()) {
+                sse.sendEvent("response", "Please ask me about a match prediction!");
+                emitter.complete();
+                return;
+            }
+
+            String lowerMessage = message.toLowerCase();
+            String quickResponse = generateQuickResponse(lowerMessage);
+            String[] matchup = quickResponse == null ? parseMatchup(lowerMessage) : null;
+
+            if (matchup == null) {
+                sse.sendEvent("response", quickResponse != null ? quickResponse : generateResponse(lowerMessage));
+                emitter.complete();
+                return;
+            }
+
+            streamRAGPrediction(matchup[0], matchup[1], sse, emitter);
+        });
+
+        return emitter;
+    }
+
+    String generateResponse(String message) {
+        String quickResponse = generateQuickResponse(message);
+        if (quickResponse != null) {
+            return quickResponse;
+        }
+
+        // Predict specific match using RAG
+        String[] matchup = parseMatchup(message);
+        if (matchup != null) {
+            return generateRAGPrediction(matchup[0], matchup[1]); // ← use RAG
+        }
+
+        // Check if message contains specific team names (in-memory index, one pass over the message)
+        List<Team> mentioned = teamLookupIndex.findMentions(message);
+        if (!mentioned.isEmpty()) {
+            Team team = mentioned.get(0);
+            return String.format(
+                    "I see you mentioned %s! They're from %s and were founded in %d. " +
+                            "Would you like to know about their upcoming matches or make a prediction?",
+                    team.getName(),
+                    team.getCountry(),
+                    team.getFoundedYear() != null ? team.getFoundedYear() : 0
+            );
+        }
+
+        // Default response
+        return "I'm not sure I understand. Try asking about:\n" +
+                "- Specific matches (e.g., 'Real Madrid vs Barcelona')\n" +
+                "- 'Show upcoming matches'\n" +
+                "- 'List all teams'\n" +
+                "- Type 'help' for more options";
+    }
+
+    // Greetings, help and listings - answered without the LLM (null if the message is none of these)
+    private String generateQuickResponse(String message) {
         // Greetings
         if (message.contains("hello") || message.contains("hi") || message.contains("hey")) {
             return "Hello! I'm your AI football prediction assistant powered by RAG (Retrieval-Augmented Generation). " +
@@ -65,7 +150,7 @@ public class SimpleChatController {
 
         // List teams
         if (message.contains("teams") || message.contains("list teams")) {
-            List<Team> teams = teamService.getAllTeams();
+            List<Team> teams = teamLookupIndex.getTeams();
             if (teams.isEmpty()) {
                 return "No teams found in the database. Please add some teams first!";
             }
@@ -95,7 +180,11 @@ public class SimpleChatController {
             return "Upcoming matches:\n" + matchList;
         }
 
-        // Predict specific match using RAG
+        return null;
+    }
+
+    // "Real Madrid vs Barcelona" -> {"real madrid", "barcelona"}, or null if the message is not a matchup
+    String[] parseMatchup(String message) {
         if (message.contains("vs") || message.contains("predict")) {
             String[] parts = message.split("vs");
             if (parts.length == 2) {
@@ -108,30 +197,10 @@ public class SimpleChatController {
                         .replace("?", "")
                         .trim();
 
-                return generateRAGPrediction(team1Name, team2Name); // ← use RAG
-            }
-        }
-
-        // Check if message contains specific team names
-        List<Team> allTeams = teamService.getAllTeams();
-        for (Team team : allTeams) {
-            if (message.contains(team.getName().toLowerCase())) {
-                return String.format(
-                        "I see you mentioned %s! They're from %s and were founded in %d. " +
-                                "Would you like to know about their upcoming matches or make a prediction?",
-                        team.getName(),
-                        team.getCountry(),
-                        team.getFoundedYear() != null ? team.getFoundedYear() : 0
-                );
+                return new String[]{team1Name, team2Name};
             }
         }
-
-        // Default response
-        return "I'm not sure I understand. Try asking about:\n" +
-                "- Specific matches (e.g., 'Real Madrid vs Barcelona')\n" +
-                "- 'Show upcoming matches'\n" +
-                "- 'List all teams'\n" +
-                "- Type 'help' for more options";
+        return null;
     }
 
     /**
@@ -139,96 +208,129 @@ public class SimpleChatController {
      */
     private String generateRAGPrediction(String team1, String team2) {
         try {
-            // Find teams in database
-            List<Team> allTeams = teamService.getAllTeams();
-
-            Team foundTeam1 = allTeams.stream()
-                    .filter(t -> t.getName().toLowerCase().contains(team1.toLowerCase()) ||
-                            team1.toLowerCase().contains(t.getName().toLowerCase()))
-                    .findFirst()
-                    .orElse(null);
-
-            Team foundTeam2 = allTeams.stream()
-                    .filter(t -> t.getName().toLowerCase().contains(team2.toLowerCase()) ||
-                            team2.toLowerCase().contains(t.getName().toLowerCase()))
-                    .findFirst()
-                    .orElse(null);
+            // Resolve the names against the team index (no database query)
+            Team foundTeam1 = findTeam(team1);
+            Team foundTeam2 = findTeam(team2);
 
             if (foundTeam1 == null || foundTeam2 == null) {
-                return String.format(
-                        "I couldn't find both teams in the database.\n\n" +
-                                "Available teams: %s",
-                        allTeams.stream().limit(10).map(Team::getName).collect(Collectors.joining(", "))
-                );
+                return teamsNotFoundMessage();
             }
 
-            // Check if match already exists
-            List<Match> upcomingMatches = matchService.getUpcomingMatches();
-            Match existingMatch = upcomingMatches.stream()
-                    .filter(m ->
-                            (m.getHomeTeam().getId().equals(foundTeam1.getId()) &&
-                                    m.getAwayTeam().getId().equals(foundTeam2.getId())) ||
-                                    (m.getHomeTeam().getId().equals(foundTeam2.getId()) &&
-                                            m.getAwayTeam().getId().equals(foundTeam1.getId()))
-                    )
-                    .findFirst()
-                    .orElse(null);
-
-            Match matchToPredict;
-
-            // If match doesn't exist, create a temporary one
-            if (existingMatch == null) {
-                System.out.println("Creating temporary match for prediction...");
-                Match tempMatch = new Match();
-                tempMatch.setHomeTeam(foundTeam1);
-                tempMatch.setAwayTeam(foundTeam2);
-                tempMatch.setLeague("Friendly/Chat Prediction");
-                tempMatch.setMatchDate(LocalDateTime.now().plusDays(7));
-                tempMatch.setStatus("SCHEDULED");
-
-                // Save temporary match
-                matchToPredict = matchService.createMatch(tempMatch);
-            } else {
-                matchToPredict = existingMatch;
-            }
+            Match matchToPredict = findOrCreateMatch(foundTeam1, foundTeam2);
 
             // Generate RAG prediction using AiPredictionService
             System.out.println("Generating RAG prediction for match ID: " + matchToPredict.getId());
             AiPrediction prediction = aiPredictionService.generatePrediction(matchToPredict.getId());
 
-            // Format the response
-            return String.format(
-                    "**AI-Powered RAG Prediction**\n\n" +
-                            "**%s vs %s**\n" +
-                            "League: %s\n\n" +
-                            "**Probabilities:**\n" +
-                            "%s: %.1f%%\n" +
-                            "Draw: %.1f%%\n" +
-                            "%s: %.1f%%\n\n" +
-                            "**AI Reasoning:**\n%s\n\n" +
-                            "Confidence: %.0f%%\n" +
-                            "Model: %s",
-                    foundTeam1.getName(),
-                    foundTeam2.getName(),
-                    matchToPredict.getLeague(),
-                    foundTeam1.getName(),
-                    prediction.getHomeWinProbability(),
-                    prediction.getDrawProbability(),
-                    foundTeam2.getName(),
-                    prediction.getAwayWinProbability(),
-                    prediction.getReasoning(),
-                    prediction.getConfidenceScore().doubleValue() * 100,
-                    prediction.getModelVersion() != null ? prediction.getModelVersion() : "llama3.2-RAG"
-            );
+            return formatPrediction(foundTeam1, foundTeam2, matchToPredict, prediction);
 
         } catch (Exception e) {
             e.printStackTrace();
-            return "**Error generating AI prediction**\n\n" +
-                    "Make sure:\n" +
-                    "Ollama is running (http://localhost:11434)\n" +
-                    "llama3.2 model is installed (`ollama pull llama3.2`)\n" +
-                    "Database is connected\n\n" +
-                    "Error details: " + e.getMessage();
+            return predictionErrorMessage(e);
         }
     }
+
+    // Streaming counterpart of generateRAGPrediction - tokens go straight to the SSE emitter
+    private void streamRAGPrediction(String team1, String team2, SsePredictionListener sse, SseEmitter emitter) {
+        try {
+            Team foundTeam1 = findTeam(team1);
+            Team foundTeam2 = findTeam(team2);
+
+            if (foundTeam1 == null || foundTeam2 == null) {
+                sse.sendEvent("response", teamsNotFoundMessage());
+                emitter.complete();
+                return;
+            }
+
+            Match matchToPredict = findOrCreateMatch(foundTeam1, foundTeam2);
+
+            aiPredictionService.streamPrediction(matchToPredict.getId(), new SsePredictionListener(emitter, ollamaGateway.getModel()) {
+                @Override
+                public void onComplete(AiPrediction prediction) {
+                    sendEvent("prediction", prediction);
+                    sendEvent("response", formatPrediction(foundTeam1, foundTeam2, matchToPredict, prediction));
+                    emitter.complete();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    sendEvent("response", predictionErrorMessage(error));
+                    emitter.complete();
+                }
+            });
+
+        } catch (Exception e) {
+            sse.sendEvent("response", predictionErrorMessage(e));
+            emitter.complete();
+        }
+    }
+
+    private Team findTeam(String name) {
+        return teamLookupIndex.resolve(name).orElse(null);
+    }
+
+    private Match findOrCreateMatch(Team foundTeam1, Team foundTeam2) {
+        // Check if match already exists
+        Match existingMatch = matchService.findNextFixture(foundTeam1, foundTeam2).orElse(null);
+
+        if (existingMatch != null) {
+            return existingMatch;
+        }
+
+        // If match doesn't exist, create a temporary one
+        System.out.println("Creating temporary match for prediction...");
+        Match tempMatch = new Match();
+        tempMatch.setHomeTeam(foundTeam1);
+        tempMatch.setAwayTeam(foundTeam2);
+        tempMatch.setLeague("Friendly/Chat Prediction");
+        tempMatch.setMatchDate(LocalDateTime.now().plusDays(7));
+        tempMatch.setStatus("SCHEDULED");
+
+        // Save temporary match
+        return matchService.createMatch(tempMatch);
+    }
+
+    private String teamsNotFoundMessage() {
+        return String.format(
+                "I couldn't find both teams in the database.\n\n" +
+                        "Available teams: %s",
+                teamLookupIndex.getTeams().stream().limit(10).map(Team::getName).collect(Collectors.joining(", "))
+        );
+    }
+
+    private String formatPrediction(Team foundTeam1, Team foundTeam2, Match matchToPredict, AiPrediction prediction) {
+        // Format the response
+        return String.format(
+                "**AI-Powered RAG Prediction**\n\n" +
+                        "**%s vs %s**\n" +
+                        "League: %s\n\n" +
+                        "**Probabilities:**\n" +
+                        "%s: %.1f%%\n" +
+                        "Draw: %.1f%%\n" +
+                        "%s: %.1f%%\n\n" +
+                        "**AI Reasoning:**\n%s\n\n" +
+                        "Confidence: %.0f%%\n" +
+                        "Model: %s",
+                foundTeam1.getName(),
+                foundTeam2.getName(),
+                matchToPredict.getLeague(),
+                foundTeam1.getName(),
+                prediction.getHomeWinProbability(),
+                prediction.getDrawProbability(),
+                foundTeam2.getName(),
+                prediction.getAwayWinProbability(),
+                prediction.getReasoning(),
+                prediction.getConfidenceScore().doubleValue() * 100,
+                prediction.getModelVersion() != null ? prediction.getModelVersion() : ollamaGateway.getModel() + "-RAG"
+        );
+    }
+
+    private String predictionErrorMessage(Throwable e) {
+        return "**Error generating AI prediction**\n\n" +
+                "Make sure:\n" +
+                "Ollama is running (http://localhost:11434)\n" +
+                ollamaGateway.getModel() + " model is installed (`ollama pull " + ollamaGateway.getModel() + "`)\n" +
+                "Database is connected\n\n" +
+                "Error details: " + e.getMessage();
+    }
 }
\ No newline at end of file
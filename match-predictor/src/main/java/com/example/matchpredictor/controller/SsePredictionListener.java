@@ -0,0 +1,75 @@
+package com.example.matchpredictor.controller;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.service.PredictionStreamListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Forwards a streamed prediction to the browser as Server-Sent Events:
+ * "token" for each chunk, "field" for each parsed value, then "prediction" or "error".
+ * Takes over the emitter's completion, timeout and error callbacks: when the client goes away
+ * (or the first send fails) the generation is cancelled, freeing Ollama and its stream permit.
+ */
+public class SsePredictionListener implements PredictionStreamListener {
+
+    private final SseEmitter emitter;
+    private final String model;
+    private final Sinks.Empty<Void> cancelled = Sinks.empty();
+
+    public SsePredictionListener(SseEmitter emitter, String model) {
+        this.emitter = emitter;
+        this.model = model;
+        emitter.onCompletion(this::cancel);
+        emitter.onTimeout(this::cancel);
+        emitter.onError(error -> cancel());
+    }
+
+    @Override
+    public Mono<Void> cancellation() {
+        return cancelled.asMono();
+    }
+
+    @Override
+    public void onToken(String token) {
+        sendEvent("token", token);
+    }
+
+    @Override
+    public void onField(String field, String value) {
+        sendEvent("field", Map.of("field", field, "value", value));
+    }
+
+    @Override
+    public void onComplete(AiPrediction prediction) {
+        sendEvent("prediction", prediction);
+        emitter.complete();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        sendEvent("error", Map.of(
+                "error", error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName(),
+                "tip", "Make sure Ollama is running with " + model + " model"
+        ));
+        emitter.complete();
+    }
+
+    public void sendEvent(String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            cancel();
+        }
+    }
+
+    // After a normal completion this is a no-op: the stream has already finished
+    private void cancel() {
+        cancelled.tryEmitEmpty();
+    }
+}
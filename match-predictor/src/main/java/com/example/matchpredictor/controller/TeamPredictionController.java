@@ -47,7 +47,7 @@ public class TeamPredictionController {
             }
 
             // Check if match already exists
-            Optional<Match> existingMatch = findMatchBetweenTeams(homeTeam, awayTeam);
+            Optional<Match> existingMatch = matchService.findNextFixture(homeTeam, awayTeam);
 
             Match match;
             if (existingMatch.isPresent()) {
@@ -79,15 +79,4 @@ public class TeamPredictionController {
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
         }
     }
-
-    private Optional<Match> findMatchBetweenTeams(Team team1, Team team2) {
-        return matchService.getUpcomingMatches().stream()
-                .filter(m ->
-                        (m.getHomeTeam().getId().equals(team1.getId()) &&
-                                m.getAwayTeam().getId().equals(team2.getId())) ||
-                                (m.getHomeTeam().getId().equals(team2.getId()) &&
-                                        m.getAwayTeam().getId().equals(team1.getId()))
-                )
-                .findFirst();
-    }
 }
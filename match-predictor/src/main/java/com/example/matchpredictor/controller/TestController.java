@@ -1,10 +1,8 @@
 package com.example. matchpredictor.controller;
 
 import com.example.matchpredictor. service.DataInitializationService;
+import com.example.matchpredictor.service.OllamaGateway;
 import org.springframework.ai.ollama.OllamaChatClient;
-import org. springframework.ai.chat.ChatResponse;
-import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.ollama.api.OllamaApi;
 import org. springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation. GetMapping;
@@ -20,7 +18,10 @@ public class TestController {
     @Autowired
     private DataInitializationService dataInitializationService;
 
-    @Value("${spring. ai.ollama.chat.model:NOT_SET}")
+    @Autowired
+    private OllamaGateway ollamaGateway;
+
+    @Value("${spring.ai.ollama.chat.model:NOT_SET}")
     private String configuredModel;
 
     @GetMapping("/debug-config")
@@ -43,17 +44,11 @@ public class TestController {
         System.out.println("DEBUG: OllamaChatClient instance: " + ollamaChatClient);
 
         try {
-            System.out.println("DEBUG: About to create Prompt");
-            Prompt prompt = new Prompt(message);
-            System.out. println("DEBUG: Prompt created successfully");
-
-            System.out.println("DEBUG: About to call ollamaChatClient.call()");
-            ChatResponse response = ollamaChatClient.call(prompt);
+            // Through the gateway, so this test call also waits for an Ollama permit
+            System.out.println("DEBUG: About to call ollamaGateway.generate()");
+            String result = ollamaGateway.generate(message);
             System.out.println("DEBUG: Call successful, got response");
 
-            String result = response.getResult().getOutput(). getContent();
-            System.out. println("DEBUG: Extracted content from response");
-
             return "AI Response:\n\n" + result;
 
         } catch (Exception e) {
@@ -86,11 +81,17 @@ public class TestController {
                 - GET /initialize-data (Create sample teams & matches)
                 - GET /api/predictions/teams (List all teams)
                 - GET /api/predictions/upcoming-matches (Get matches for prediction)
+                - GET /api/predictions/{teams|upcoming-matches|all}/page?cursor=&size= (Keyset pages)
+                - GET /api/predictions/all/export (All predictions as NDJSON)
                 
                 AI Predictions:
                 - POST /api/predictions/generate/{matchId} (Generate AI prediction)
+                - POST /api/predictions/generate/{matchId}/async (Queue prediction job)
+                - GET /api/predictions/jobs/{jobId} (Poll prediction job)
+                - POST /api/predictions/batch?from=&to=&league= (Queue predictions for a whole matchday)
                 - GET /api/predictions/match/{matchId}/latest (Get latest prediction)
-                - GET /api/predictions/stats (Prediction accuracy)
+                - GET /api/predictions/stats (Prediction accuracy, Brier score, log loss)
+                - POST /api/predictions/evaluate/backfill (Score predictions of past results)
                 """;
     }
 
@@ -102,21 +103,10 @@ public class TestController {
     @GetMapping("/test-ai")
     public String testAi(@RequestParam(defaultValue = "Hello") String message) {
         try {
-            // Create a NEW client with explicit model each time
-            OllamaApi directApi = new OllamaApi("http://localhost:11434");
-            OllamaChatClient directClient = new OllamaChatClient(directApi);
-
-            // Force the model in the options
-            ChatResponse response = directClient.call(
-                    new Prompt(message,
-                            org.springframework.ai.ollama.api.OllamaOptions.create()
-                                    .withModel("llama3.2"))
-            );
-
-            return "AI Response:\n\n" + response.getResult().getOutput(). getContent();
+            return "AI Response:\n\n" + ollamaGateway.generate(message);
         } catch (Exception e) {
             return "Error: " + e.getMessage() +
-                    "\n\nMake sure Ollama is running with model llama3.2" +
+                    "\n\nMake sure Ollama is running with model " + ollamaGateway.getModel() +
                     "\n\nTry /test-ai-detailed for more debug info";
         }
     }
@@ -124,7 +114,7 @@ public class TestController {
     @GetMapping("/status")
     public String status() {
         return "Application Status: RUNNING\n" +
-                "AI Service: Ollama (llama3.2)\n" +
+                "AI Service: Ollama (" + ollamaGateway.getModel() + ")\n" +
                 "Database: PostgreSQL\n" +
                 "Server: http://localhost:8080\n" +
                 "Debug: /debug-config, /test-ai-detailed";
@@ -0,0 +1,31 @@
+package com.example.matchpredictor.dto;
+
+import com.example.matchpredictor.entity.AiPrediction;
+
+import java.util.List;
+import java.util.Map;
+
+public class BatchPredictionResult {
+
+    private final int totalMatches;
+    private final int cachedCount;
+    private final List<AiPrediction> predictions;
+    private final Map<Integer, String> failures; // match id -> error
+
+    public BatchPredictionResult(int totalMatches, int cachedCount,
+                                 List<AiPrediction> predictions, Map<Integer, String> failures) {
+        this.totalMatches = totalMatches;
+        this.cachedCount = cachedCount;
+        this.predictions = predictions;
+        this.failures = failures;
+    }
+
+    // Getters
+    public int getTotalMatches() { return totalMatches; }
+
+    public int getCachedCount() { return cachedCount; }
+
+    public List<AiPrediction> getPredictions() { return predictions; }
+
+    public Map<Integer, String> getFailures() { return failures; }
+}
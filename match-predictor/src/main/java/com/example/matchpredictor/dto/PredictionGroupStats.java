@@ -0,0 +1,40 @@
+package com.example.matchpredictor.dto;
+
+/**
+ * Aggregate over a group of predictions (a team, a league, a model version or the whole table),
+ * selected straight into this record by the GROUP BY analytics queries.
+ * Sums are null when the group is empty; the accessors below treat that as zero.
+ */
+public record PredictionGroupStats(String key, Long predictions, Double averageConfidence,
+                                   Long evaluated, Long correct) {
+
+    public long predictionCount() {
+        return predictions != null ? predictions : 0;
+    }
+
+    public long evaluatedCount() {
+        return evaluated != null ? evaluated : 0;
+    }
+
+    public long correctCount() {
+        return correct != null ? correct : 0;
+    }
+
+    // Percentage of evaluated predictions that were correct, 0 if none were evaluated
+    public double accuracy() {
+        return evaluatedCount() > 0 ? correctCount() * 100.0 / evaluatedCount() : 0;
+    }
+
+    // Combines two groups with the same key (e.g. a team's home and away rows)
+    public PredictionGroupStats plus(PredictionGroupStats other) {
+        long total = predictionCount() + other.predictionCount();
+        double confidenceSum = predictionCount() * orZero(averageConfidence)
+                + other.predictionCount() * orZero(other.averageConfidence);
+        return new PredictionGroupStats(key, total, total > 0 ? confidenceSum / total : 0.0,
+                evaluatedCount() + other.evaluatedCount(), correctCount() + other.correctCount());
+    }
+
+    private static double orZero(Double value) {
+        return value != null ? value : 0;
+    }
+}
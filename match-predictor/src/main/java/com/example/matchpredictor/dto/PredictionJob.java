@@ -0,0 +1,77 @@
+package com.example.matchpredictor.dto;
+
+import com.example.matchpredictor.entity.AiPrediction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PredictionJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private final String id;
+    private final Integer matchId;       // single-match job
+    private final List<Integer> matchIds; // matchday (batch) job
+    private final String callbackUrl;
+    private final LocalDateTime submittedAt;
+
+    // Written by the worker thread, read by polling requests
+    private volatile String status = QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile AiPrediction prediction;
+    private volatile BatchPredictionResult batchResult;
+    private volatile String error;
+
+    public PredictionJob(String id, Integer matchId, String callbackUrl) {
+        this(id, matchId, null, callbackUrl);
+    }
+
+    public PredictionJob(String id, List<Integer> matchIds, String callbackUrl) {
+        this(id, null, matchIds, callbackUrl);
+    }
+
+    private PredictionJob(String id, Integer matchId, List<Integer> matchIds, String callbackUrl) {
+        this.id = id;
+        this.matchId = matchId;
+        this.matchIds = matchIds;
+        this.callbackUrl = callbackUrl;
+        this.submittedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return COMPLETED.equals(status) || FAILED.equals(status);
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+
+    public Integer getMatchId() { return matchId; }
+
+    public List<Integer> getMatchIds() { return matchIds; }
+
+    public String getCallbackUrl() { return callbackUrl; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public AiPrediction getPrediction() { return prediction; }
+    public void setPrediction(AiPrediction prediction) { this.prediction = prediction; }
+
+    public BatchPredictionResult getBatchResult() { return batchResult; }
+    public void setBatchResult(BatchPredictionResult batchResult) { this.batchResult = batchResult; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
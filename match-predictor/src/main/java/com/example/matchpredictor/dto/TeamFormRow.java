@@ -0,0 +1,11 @@
+package com.example.matchpredictor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of one finished match seen from one team,
+ * selected straight into this record by the top-N form queries (no managed entities).
+ */
+public record TeamFormRow(Integer matchId, LocalDateTime matchDate, String opponent,
+                          Integer teamScore, Integer opponentScore, boolean home) {
+}
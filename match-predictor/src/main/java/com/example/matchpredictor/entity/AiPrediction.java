@@ -21,7 +21,7 @@ public class AiPrediction {
     private Integer id;
 
     @NotNull(message = "Match is required")
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "match_id", nullable = false)
     private Match match;
 
@@ -58,9 +58,20 @@ public class AiPrediction {
     @Column(name = "model_version", length = 50)
     private String modelVersion;
 
+    // Estimated size of the prompt the answer was generated from (see TokenEstimator)
+    @Column(name = "prompt_tokens")
+    private Integer promptTokens;
+
     @Column(name = "is_correct")
     private Boolean isCorrect;
 
+    // Set with is_correct once the match is finished (lower is better for both)
+    @Column(name = "brier_score", precision = 6, scale = 4)
+    private BigDecimal brierScore;
+
+    @Column(name = "log_loss", precision = 6, scale = 4)
+    private BigDecimal logLoss;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -105,9 +116,18 @@ public class AiPrediction {
     public String getModelVersion() { return modelVersion; }
     public void setModelVersion(String modelVersion) { this.modelVersion = modelVersion; }
 
+    public Integer getPromptTokens() { return promptTokens; }
+    public void setPromptTokens(Integer promptTokens) { this.promptTokens = promptTokens; }
+
     public Boolean getIsCorrect() { return isCorrect; }
     public void setIsCorrect(Boolean isCorrect) { this.isCorrect = isCorrect; }
 
+    public BigDecimal getBrierScore() { return brierScore; }
+    public void setBrierScore(BigDecimal brierScore) { this.brierScore = brierScore; }
+
+    public BigDecimal getLogLoss() { return logLoss; }
+    public void setLogLoss(BigDecimal logLoss) { this.logLoss = logLoss; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
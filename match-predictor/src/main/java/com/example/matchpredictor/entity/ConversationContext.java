@@ -7,7 +7,8 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "conversation_contexts")
+@Table(name = "conversation_contexts",
+        indexes = @Index(name = "idx_conversation_session_created", columnList = "session_id, created_at, id"))
 public class ConversationContext {
 
     @Id
@@ -0,0 +1,87 @@
+package com.example.matchpredictor.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized head-to-head record of a pair of teams over their finished matches.
+ * The pair is stored once, lower team id first; callers flip it to their own perspective.
+ */
+@Entity
+@Table(name = "head_to_head_stats",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"team_low_id", "team_high_id"}))
+public class HeadToHeadStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "team_low_id", nullable = false)
+    private Integer teamLowId;
+
+    @Column(name = "team_high_id", nullable = false)
+    private Integer teamHighId;
+
+    @Column(nullable = false)
+    private Integer matches = 0;
+
+    @Column(name = "low_wins", nullable = false)
+    private Integer lowWins = 0;
+
+    @Column(nullable = false)
+    private Integer draws = 0;
+
+    @Column(name = "high_wins", nullable = false)
+    private Integer highWins = 0;
+
+    @Column(name = "low_goals", nullable = false)
+    private Integer lowGoals = 0;
+
+    @Column(name = "high_goals", nullable = false)
+    private Integer highGoals = 0;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public HeadToHeadStats() {}
+
+    public HeadToHeadStats(Integer teamLowId, Integer teamHighId) {
+        this.teamLowId = teamLowId;
+        this.teamHighId = teamHighId;
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Integer getTeamLowId() { return teamLowId; }
+    public void setTeamLowId(Integer teamLowId) { this.teamLowId = teamLowId; }
+
+    public Integer getTeamHighId() { return teamHighId; }
+    public void setTeamHighId(Integer teamHighId) { this.teamHighId = teamHighId; }
+
+    public Integer getMatches() { return matches; }
+    public void setMatches(Integer matches) { this.matches = matches; }
+
+    public Integer getLowWins() { return lowWins; }
+    public void setLowWins(Integer lowWins) { this.lowWins = lowWins; }
+
+    public Integer getDraws() { return draws; }
+    public void setDraws(Integer draws) { this.draws = draws; }
+
+    public Integer getHighWins() { return highWins; }
+    public void setHighWins(Integer highWins) { this.highWins = highWins; }
+
+    public Integer getLowGoals() { return lowGoals; }
+    public void setLowGoals(Integer lowGoals) { this.lowGoals = lowGoals; }
+
+    public Integer getHighGoals() { return highGoals; }
+    public void setHighGoals(Integer highGoals) { this.highGoals = highGoals; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
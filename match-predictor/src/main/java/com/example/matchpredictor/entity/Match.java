@@ -2,18 +2,29 @@ package com.example.matchpredictor.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "matches")
+@Table(name = "matches", indexes = {
+        // Top-N form lookups: WHERE team = ? AND status = ? ORDER BY match_date DESC
+        @Index(name = "idx_matches_home_status_date", columnList = "home_team_id, status, match_date"),
+        @Index(name = "idx_matches_away_status_date", columnList = "away_team_id, status, match_date"),
+        // Next fixture between two teams: WHERE home = ? AND away = ? AND match_date > ? ORDER BY match_date
+        @Index(name = "idx_matches_pair_date", columnList = "home_team_id, away_team_id, match_date"),
+        // Keyset pages of upcoming matches: ORDER BY match_date, id
+        @Index(name = "idx_matches_date", columnList = "match_date, id")
+})
 public class Match {
 
     @Id
@@ -21,12 +32,12 @@ public class Match {
     private Integer id;
 
     @NotNull(message = "Home team is required")
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "home_team_id", nullable = false)
     private Team homeTeam;
 
     @NotNull(message = "Away team is required")
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "away_team_id", nullable = false)
     private Team awayTeam;
 
@@ -56,6 +67,10 @@ public class Match {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     //One-toMany relationship with AiPrediction
     @JsonIgnore
     @OneToMany(mappedBy = "match", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -107,6 +122,9 @@ public class Match {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
     public List<AiPrediction> getAiPredictions() { return aiPredictions; }
     public void setAiPredictions(List<AiPrediction> aiPredictions) { this.aiPredictions = aiPredictions; }
 
@@ -0,0 +1,44 @@
+package com.example.matchpredictor.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized rolling form of one team: its last five finished matches,
+ * kept up to date by MatchStatsService when results are entered.
+ */
+@Entity
+@Table(name = "team_form_stats")
+public class TeamFormStats {
+
+    @Id
+    @Column(name = "team_id")
+    private Integer teamId;
+
+    // Newest first, one match per line: matchId|matchDate|opponent|teamScore|opponentScore
+    @Column(name = "recent_results", length = 2000)
+    private String recentResults = "";
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public TeamFormStats() {}
+
+    public TeamFormStats(Integer teamId) {
+        this.teamId = teamId;
+    }
+
+    // Getters and Setters
+    public Integer getTeamId() { return teamId; }
+    public void setTeamId(Integer teamId) { this.teamId = teamId; }
+
+    public String getRecentResults() { return recentResults; }
+    public void setRecentResults(String recentResults) { this.recentResults = recentResults; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
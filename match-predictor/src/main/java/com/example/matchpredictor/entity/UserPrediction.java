@@ -16,7 +16,7 @@ public class UserPrediction {
     private Integer id;
 
     @NotNull(message = "User is required")
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -31,7 +31,7 @@ public class UserPrediction {
     @Column(name = "embedding_data", columnDefinition = "TEXT")
     private String embeddingData;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "match_id")
     private Match match;
 
@@ -0,0 +1,50 @@
+package com.example.matchpredictor.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * High-water mark of the last vector store sync, one row per collection.
+ */
+@Entity
+@Table(name = "vector_sync_state")
+public class VectorSyncState {
+
+    @Id
+    @Column(name = "collection_name", length = 100)
+    private String collectionName;
+
+    // Highest row id already synced (insert-only collections)
+    @Column(name = "last_id")
+    private Integer lastId = 0;
+
+    // Start time of the last completed sync (collections whose rows change)
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public VectorSyncState() {}
+
+    public VectorSyncState(String collectionName) {
+        this.collectionName = collectionName;
+    }
+
+    // Getters and Setters
+    public String getCollectionName() { return collectionName; }
+    public void setCollectionName(String collectionName) { this.collectionName = collectionName; }
+
+    public Integer getLastId() { return lastId; }
+    public void setLastId(Integer lastId) { this.lastId = lastId; }
+
+    public LocalDateTime getLastSyncedAt() { return lastSyncedAt; }
+    public void setLastSyncedAt(LocalDateTime lastSyncedAt) { this.lastSyncedAt = lastSyncedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,87 @@
+package com.example.matchpredictor.repository;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for ai_predictions.
+ * Hibernate cannot batch inserts for IDENTITY ids, so bulk saves go through here.
+ */
+@Repository
+public class AiPredictionBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO ai_predictions (match_id, home_win_probability, draw_probability, away_win_probability,
+                                        reasoning, parameters, confidence_score, model_version, prompt_tokens,
+                                        is_correct, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Insert all predictions in one JDBC batch; generated ids and created_at are set back on the objects
+    @Transactional
+    public List<AiPrediction> insertAll(List<AiPrediction> predictions) {
+        if (predictions.isEmpty()) return predictions;
+
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        AiPrediction p = predictions.get(i);
+                        ps.setInt(1, p.getMatch().getId());
+                        ps.setBigDecimal(2, p.getHomeWinProbability());
+                        ps.setBigDecimal(3, p.getDrawProbability());
+                        ps.setBigDecimal(4, p.getAwayWinProbability());
+                        ps.setString(5, p.getReasoning());
+                        ps.setString(6, p.getParameters());
+                        ps.setBigDecimal(7, p.getConfidenceScore());
+                        ps.setString(8, p.getModelVersion());
+                        if (p.getPromptTokens() != null) {
+                            ps.setInt(9, p.getPromptTokens());
+                        } else {
+                            ps.setNull(9, Types.INTEGER);
+                        }
+                        if (p.getIsCorrect() != null) {
+                            ps.setBoolean(10, p.getIsCorrect());
+                        } else {
+                            ps.setNull(10, Types.BOOLEAN);
+                        }
+                        ps.setTimestamp(11, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return predictions.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < predictions.size(); i++) {
+            predictions.get(i).setId(((Number) keys.get(i).get("id")).intValue());
+            predictions.get(i).setCreatedAt(now);
+        }
+        return predictions;
+    }
+}
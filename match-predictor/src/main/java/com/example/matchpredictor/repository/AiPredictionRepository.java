@@ -1,32 +1,55 @@
 package com.example.matchpredictor.repository;
 
+import com.example.matchpredictor.dto.PredictionGroupStats;
 import com.example.matchpredictor.entity.AiPrediction;
 import com.example.matchpredictor.entity.Match;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 @Repository
 public interface AiPredictionRepository extends JpaRepository<AiPrediction, Integer> {
 
+    // The match and its teams are LAZY on the entity; every query that hands out predictions fetches them up front
+    @Override
+    @EntityGraph(attributePaths = {"match", "match.homeTeam", "match.awayTeam"})
+    List<AiPrediction> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"match", "match.homeTeam", "match.awayTeam"})
+    Optional<AiPrediction> findById(Integer id);
+
     // Find predictions by match
+    @EntityGraph(attributePaths = {"match", "match.homeTeam", "match.awayTeam"})
     List<AiPrediction> findByMatch(Match match);
 
     // Find latest prediction for a match - CORRECTED (using Pageable instead of LIMIT)
+    @EntityGraph(attributePaths = {"match", "match.homeTeam", "match.awayTeam"})
     @Query("SELECT ap FROM AiPrediction ap WHERE ap.match = :match ORDER BY ap.createdAt DESC")
     List<AiPrediction> findByMatchOrderByCreatedAtDesc(Match match, Pageable pageable);
 
     // Find predictions by model version
+    @EntityGraph(attributePaths = {"match", "match.homeTeam", "match.awayTeam"})
     List<AiPrediction> findByModelVersion(String modelVersion);
 
     // Find correct predictions
+    @EntityGraph(attributePaths = {"match", "match.homeTeam", "match.awayTeam"})
     @Query("SELECT ap FROM AiPrediction ap WHERE ap.isCorrect = true")
     List<AiPrediction> findCorrectPredictions();
 
     // Find predictions with high confidence
+    @EntityGraph(attributePaths = {"match", "match.homeTeam", "match.awayTeam"})
     @Query("SELECT ap FROM AiPrediction ap WHERE ap.confidenceScore >= :minConfidence ORDER BY ap.confidenceScore DESC")
     List<AiPrediction> findHighConfidencePredictions(java.math.BigDecimal minConfidence);
 
@@ -37,4 +60,111 @@ public interface AiPredictionRepository extends JpaRepository<AiPrediction, Inte
     @Query("SELECT COUNT(*) FROM AiPrediction ap WHERE ap.isCorrect IS NOT NULL")
     Long countEvaluatedPredictions();
 
+    // Mean Brier score and log loss over evaluated predictions
+    @Query("SELECT AVG(ap.brierScore), AVG(ap.logLoss) FROM AiPrediction ap WHERE ap.isCorrect IS NOT NULL")
+    List<Object[]> averageEvaluationScores();
+
+    // ---------- Evaluation ----------
+
+    /**
+     * Scores every prediction of one finished match in a single UPDATE. Exactly one of
+     * home/draw/away is 1 (the actual outcome). Correct means the outcome had the highest
+     * probability (ties included); Brier and log loss use the probabilities normalised by
+     * their sum, log loss clipped at p = 0.0001.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiPrediction ap SET " +
+            "ap.isCorrect = CASE " +
+            "WHEN :home = 1 AND ap.homeWinProbability >= ap.drawProbability AND ap.homeWinProbability >= ap.awayWinProbability THEN true " +
+            "WHEN :draw = 1 AND ap.drawProbability >= ap.homeWinProbability AND ap.drawProbability >= ap.awayWinProbability THEN true " +
+            "WHEN :away = 1 AND ap.awayWinProbability >= ap.homeWinProbability AND ap.awayWinProbability >= ap.drawProbability THEN true " +
+            "ELSE false END, " +
+            "ap.brierScore = power(ap.homeWinProbability / (ap.homeWinProbability + ap.drawProbability + ap.awayWinProbability) - :home, 2) " +
+            "+ power(ap.drawProbability / (ap.homeWinProbability + ap.drawProbability + ap.awayWinProbability) - :draw, 2) " +
+            "+ power(ap.awayWinProbability / (ap.homeWinProbability + ap.drawProbability + ap.awayWinProbability) - :away, 2), " +
+            "ap.logLoss = -ln(greatest((ap.homeWinProbability * :home + ap.drawProbability * :draw " +
+            "+ ap.awayWinProbability * :away) / (ap.homeWinProbability + ap.drawProbability + ap.awayWinProbability), 0.0001)) " +
+            "WHERE ap.match.id = :matchId AND (ap.homeWinProbability + ap.drawProbability + ap.awayWinProbability) > 0")
+    int evaluateForMatch(Integer matchId, int home, int draw, int away);
+
+    // Undo the scoring when a match is taken back out of FINISHED
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiPrediction ap SET ap.isCorrect = null, ap.brierScore = null, ap.logLoss = null " +
+            "WHERE ap.match.id = :matchId AND ap.isCorrect IS NOT NULL")
+    int clearEvaluationForMatch(Integer matchId);
+
+    // (id, isCorrect) for one match, read back after evaluateForMatch
+    @Query("SELECT ap.id, ap.isCorrect FROM AiPrediction ap WHERE ap.match.id = :matchId")
+    List<Object[]> findCorrectnessByMatchId(Integer matchId);
+
+    // ---------- Analytics (one row per group; confidence averaged with missing scores as 0) ----------
+
+    @Query("SELECT new com.example.matchpredictor.dto.PredictionGroupStats('all', COUNT(ap), " +
+            "AVG(COALESCE(ap.confidenceScore, 0)), " +
+            "SUM(CASE WHEN ap.isCorrect IS NOT NULL THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN ap.isCorrect = true THEN 1 ELSE 0 END)) " +
+            "FROM AiPrediction ap")
+    PredictionGroupStats aggregateTotals();
+
+    @Query("SELECT new com.example.matchpredictor.dto.PredictionGroupStats(m.league, COUNT(ap), " +
+            "AVG(COALESCE(ap.confidenceScore, 0)), " +
+            "SUM(CASE WHEN ap.isCorrect IS NOT NULL THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN ap.isCorrect = true THEN 1 ELSE 0 END)) " +
+            "FROM AiPrediction ap JOIN ap.match m GROUP BY m.league")
+    List<PredictionGroupStats> aggregateByLeague();
+
+    @Query("SELECT new com.example.matchpredictor.dto.PredictionGroupStats(ap.modelVersion, COUNT(ap), " +
+            "AVG(COALESCE(ap.confidenceScore, 0)), " +
+            "SUM(CASE WHEN ap.isCorrect IS NOT NULL THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN ap.isCorrect = true THEN 1 ELSE 0 END)) " +
+            "FROM AiPrediction ap GROUP BY ap.modelVersion")
+    List<PredictionGroupStats> aggregateByModelVersion();
+
+    // A team's predictions are its home rows plus its away rows
+    @Query("SELECT new com.example.matchpredictor.dto.PredictionGroupStats(t.name, COUNT(ap), " +
+            "AVG(COALESCE(ap.confidenceScore, 0)), " +
+            "SUM(CASE WHEN ap.isCorrect IS NOT NULL THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN ap.isCorrect = true THEN 1 ELSE 0 END)) " +
+            "FROM AiPrediction ap JOIN ap.match m JOIN m.homeTeam t GROUP BY t.name")
+    List<PredictionGroupStats> aggregateByHomeTeam();
+
+    @Query("SELECT new com.example.matchpredictor.dto.PredictionGroupStats(t.name, COUNT(ap), " +
+            "AVG(COALESCE(ap.confidenceScore, 0)), " +
+            "SUM(CASE WHEN ap.isCorrect IS NOT NULL THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN ap.isCorrect = true THEN 1 ELSE 0 END)) " +
+            "FROM AiPrediction ap JOIN ap.match m JOIN m.awayTeam t GROUP BY t.name")
+    List<PredictionGroupStats> aggregateByAwayTeam();
+
+    // Per day the predictions were made (key is the ISO date), from the given time on
+    @Query("SELECT new com.example.matchpredictor.dto.PredictionGroupStats(str(cast(ap.createdAt as LocalDate)), " +
+            "COUNT(ap), AVG(COALESCE(ap.confidenceScore, 0)), " +
+            "SUM(CASE WHEN ap.isCorrect IS NOT NULL THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN ap.isCorrect = true THEN 1 ELSE 0 END)) " +
+            "FROM AiPrediction ap WHERE ap.createdAt >= :since GROUP BY str(cast(ap.createdAt as LocalDate))")
+    List<PredictionGroupStats> aggregateByDaySince(LocalDateTime since);
+
+    // Keyset page ordered by id (match and teams fetched in the same query) - used by the vector backfill
+    @Query("SELECT ap FROM AiPrediction ap JOIN FETCH ap.match m JOIN FETCH m.homeTeam JOIN FETCH m.awayTeam " +
+            "WHERE ap.id > :afterId ORDER BY ap.id ASC")
+    List<AiPrediction> findPageAfterId(Integer afterId, Pageable pageable);
+
+    // Keyset page, newest first - used by /api/predictions/all/page
+    @Query("SELECT ap FROM AiPrediction ap JOIN FETCH ap.match m JOIN FETCH m.homeTeam JOIN FETCH m.awayTeam " +
+            "WHERE ap.id < :beforeId ORDER BY ap.id DESC")
+    List<AiPrediction> findPageBeforeId(Integer beforeId, Pageable pageable);
+
+    // Every prediction as a server-side cursor (consume inside a read-only transaction and close it) - used by the NDJSON export
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ap FROM AiPrediction ap JOIN FETCH ap.match m JOIN FETCH m.homeTeam JOIN FETCH m.awayTeam " +
+            "ORDER BY ap.id ASC")
+    Stream<AiPrediction> streamAllWithMatch();
+
+    @Query("SELECT ap.id FROM AiPrediction ap WHERE ap.match.id = :matchId")
+    List<Integer> findIdsByMatchId(Integer matchId);
+
 }
@@ -1,23 +1,46 @@
 package com.example.matchpredictor.repository;
 
 import com.example.matchpredictor.entity. ConversationContext;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain. Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ConversationContextRepository extends JpaRepository<ConversationContext, Integer> {
 
     // Get conversation history for a session
+    @EntityGraph(attributePaths = {"match", "match.homeTeam", "match.awayTeam"})
     List<ConversationContext> findBySessionIdOrderByCreatedAtDesc(String sessionId);
 
     // Get recent context for memory (last 5 exchanges)
     @Query("SELECT c FROM ConversationContext c WHERE c.sessionId = : sessionId ORDER BY c.createdAt DESC")
     List<ConversationContext> findRecentContext(String sessionId, Pageable pageable);
 
+    // Keyset page of a session's history, newest first by (createdAt, id)
+    @EntityGraph(attributePaths = {"match", "match.homeTeam", "match.awayTeam"})
+    @Query("SELECT c FROM ConversationContext c WHERE c.sessionId = :sessionId AND " +
+            "(c.createdAt < :beforeDate OR (c.createdAt = :beforeDate AND c.id < :beforeId)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ConversationContext> findHistoryPage(String sessionId, LocalDateTime beforeDate, Integer beforeId, Pageable pageable);
+
+    // A session's whole history, oldest first, as a server-side cursor - used by the NDJSON export
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM ConversationContext c LEFT JOIN FETCH c.match m LEFT JOIN FETCH m.homeTeam " +
+            "LEFT JOIN FETCH m.awayTeam WHERE c.sessionId = :sessionId ORDER BY c.createdAt ASC, c.id ASC")
+    Stream<ConversationContext> streamBySessionId(String sessionId);
+
     // Count conversations in a session
     long countBySessionId(String sessionId);
 }
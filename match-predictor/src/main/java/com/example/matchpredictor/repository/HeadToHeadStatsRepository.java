@@ -0,0 +1,30 @@
+package com.example.matchpredictor.repository;
+
+import com.example.matchpredictor.entity.HeadToHeadStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface HeadToHeadStatsRepository extends JpaRepository<HeadToHeadStats, Integer> {
+
+    Optional<HeadToHeadStats> findByTeamLowIdAndTeamHighId(Integer teamLowId, Integer teamHighId);
+
+    // Row lock held until the surrounding transaction ends, so concurrent result updates queue up
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM HeadToHeadStats s WHERE s.teamLowId = :teamLowId AND s.teamHighId = :teamHighId")
+    Optional<HeadToHeadStats> findForUpdate(Integer teamLowId, Integer teamHighId);
+
+    // Creates an empty row unless one exists (or is being created by another transaction); 1 if created
+    @Modifying
+    @Query(value = "INSERT INTO head_to_head_stats " +
+            "(team_low_id, team_high_id, matches, low_wins, draws, high_wins, low_goals, high_goals, updated_at) " +
+            "VALUES (:teamLowId, :teamHighId, 0, 0, 0, 0, 0, 0, now()) " +
+            "ON CONFLICT (team_low_id, team_high_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(Integer teamLowId, Integer teamHighId);
+}
@@ -1,41 +1,114 @@
 package com.example.matchpredictor.repository;
 
+import com.example.matchpredictor.dto.TeamFormRow;
 import com.example.matchpredictor.entity.Match;
 import com.example.matchpredictor.entity.Team;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Integer>{
 
+    // Teams are LAZY on the entity; every query that hands out matches fetches both in the same statement
+    @Override
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
+    List<Match> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
+    Optional<Match> findById(Integer id);
+
     // Find matches by status - CORRECTED METHOD NAME
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
     List<Match> findByStatus(String status);
 
     // Find upcoming matches
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
     @Query("SELECT m FROM Match m WHERE m.matchDate > :currentTime ORDER BY m.matchDate ASC")
     List<Match> findUpcomingMatches(LocalDateTime currentTime);
 
     // Find past matches
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
     @Query("SELECT m FROM Match m WHERE m.matchDate < :currentTime ORDER BY m.matchDate DESC")
     List<Match> findPastMatches(LocalDateTime currentTime);
 
     // Find matches by team (home or away)
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
     @Query("SELECT m FROM Match m WHERE m.homeTeam = :team OR m.awayTeam = :team ORDER BY m.matchDate DESC")
     List<Match> findByTeam(Team team);
 
     // Find matches by league
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
     List<Match> findByLeague(String league);
 
     // Find matches between two teams
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
     @Query("SELECT m FROM Match m WHERE (m.homeTeam = :team1 AND m.awayTeam = :team2) OR (m.homeTeam = :team2 AND m.awayTeam = :team1) ORDER BY m.matchDate DESC")
     List<Match> findMatchesBetweenTeams(Team team1, Team team2);
 
+    // Next fixtures between two teams (either at home) after a time - each side walks idx_matches_pair_date
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
+    @Query("SELECT m FROM Match m WHERE ((m.homeTeam.id = :teamA AND m.awayTeam.id = :teamB) " +
+            "OR (m.homeTeam.id = :teamB AND m.awayTeam.id = :teamA)) AND m.matchDate > :after " +
+            "ORDER BY m.matchDate ASC")
+    List<Match> findNextFixtures(Integer teamA, Integer teamB, LocalDateTime after, Pageable pageable);
+
     // Find matches by date range
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
     @Query("SELECT m FROM Match m WHERE m.matchDate BETWEEN :startDate AND :endDate ORDER BY m.matchDate ASC")
     List<Match> findByMatchDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
+    // Keyset page of upcoming matches ordered by (matchDate, id), starting after the given key
+    @EntityGraph(attributePaths = {"homeTeam", "awayTeam"})
+    @Query("SELECT m FROM Match m WHERE m.matchDate > :currentTime AND " +
+            "(m.matchDate > :afterDate OR (m.matchDate = :afterDate AND m.id > :afterId)) " +
+            "ORDER BY m.matchDate ASC, m.id ASC")
+    List<Match> findUpcomingPage(LocalDateTime currentTime, LocalDateTime afterDate, Integer afterId, Pageable pageable);
+
+    // Top-N form of a team, one query per side so each walks its (team, status, match_date) index
+    @Query("SELECT new com.example.matchpredictor.dto.TeamFormRow(m.id, m.matchDate, m.awayTeam.name, " +
+            "m.homeScore, m.awayScore, true) " +
+            "FROM Match m WHERE m.homeTeam.id = :teamId AND m.status = :status ORDER BY m.matchDate DESC")
+    List<TeamFormRow> findRecentHomeForm(Integer teamId, String status, Pageable pageable);
+
+    @Query("SELECT new com.example.matchpredictor.dto.TeamFormRow(m.id, m.matchDate, m.homeTeam.name, " +
+            "m.awayScore, m.homeScore, false) " +
+            "FROM Match m WHERE m.awayTeam.id = :teamId AND m.status = :status ORDER BY m.matchDate DESC")
+    List<TeamFormRow> findRecentAwayForm(Integer teamId, String status, Pageable pageable);
+
+    // Head-to-head totals from teamA's perspective: matches, teamA wins, draws, teamA goals, teamB goals
+    @Query("SELECT COUNT(m), " +
+            "SUM(CASE WHEN (m.homeTeam.id = :teamA AND m.homeScore > m.awayScore) " +
+            "OR (m.awayTeam.id = :teamA AND m.awayScore > m.homeScore) THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN m.homeScore = m.awayScore THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN m.homeTeam.id = :teamA THEN m.homeScore ELSE m.awayScore END), " +
+            "SUM(CASE WHEN m.homeTeam.id = :teamA THEN m.awayScore ELSE m.homeScore END) " +
+            "FROM Match m WHERE m.status = 'FINISHED' AND " +
+            "((m.homeTeam.id = :teamA AND m.awayTeam.id = :teamB) OR (m.homeTeam.id = :teamB AND m.awayTeam.id = :teamA))")
+    List<Object[]> aggregateHeadToHead(Integer teamA, Integer teamB);
+
+    // Keyset page of matches with a given status, ordered by id - used by the vector backfill
+    @Query("SELECT m FROM Match m JOIN FETCH m.homeTeam JOIN FETCH m.awayTeam " +
+            "WHERE m.status = :status AND m.id > :afterId ORDER BY m.id ASC")
+    List<Match> findPageByStatusAfterId(String status, Integer afterId, Pageable pageable);
+
+    // Keyset page of finished matches that still have unscored predictions - used by the evaluation backfill
+    @Query("SELECT m FROM Match m WHERE m.status = 'FINISHED' AND m.id > :afterId " +
+            "AND m.homeScore IS NOT NULL AND m.awayScore IS NOT NULL " +
+            "AND EXISTS (SELECT ap.id FROM AiPrediction ap WHERE ap.match = m AND ap.isCorrect IS NULL) " +
+            "ORDER BY m.id ASC")
+    List<Match> findFinishedWithUnevaluatedPredictions(Integer afterId, Pageable pageable);
+
+    // Same page, restricted to rows modified since the last vector sync
+    @Query("SELECT m FROM Match m JOIN FETCH m.homeTeam JOIN FETCH m.awayTeam " +
+            "WHERE m.status = :status AND m.updatedAt >= :since AND m.id > :afterId ORDER BY m.id ASC")
+    List<Match> findChangedPageByStatusAfterId(String status, LocalDateTime since, Integer afterId, Pageable pageable);
+
 }
@@ -4,6 +4,7 @@ import com.example.matchpredictor.entity.Team;
 import com.example.matchpredictor.entity.User;
 import com.example.matchpredictor.repository.TeamRepository;
 import com.example.matchpredictor.repository.UserRepository;
+import com.example.matchpredictor.service.TeamService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -19,6 +20,10 @@ public class RepositoryTestController {
     @Autowired
     private TeamRepository teamRepository;
 
+    // Teams are created through the service so the chat team index is refreshed
+    @Autowired
+    private TeamService teamService;
+
     @GetMapping("/create-sample-data")
     public String createSampleData() {
         try {
@@ -33,14 +38,14 @@ public class RepositoryTestController {
                 Team team1 = new Team("Manchester United", "England");
                 team1.setLogo("https://example.com/mu-logo.png");
                 team1.setFoundedYear(1878);
-                teamRepository.save(team1);
+                teamService.createTeam(team1);
             }
 
             if (!teamRepository.existsByName("Liverpool")) {
                 Team team2 = new Team("Liverpool", "England");
                 team2.setLogo("https://example.com/liverpool-logo.png");
                 team2.setFoundedYear(1892);
-                teamRepository.save(team2);
+                teamService.createTeam(team2);
             }
 
             return "Sample data created successfully!\n\n" +
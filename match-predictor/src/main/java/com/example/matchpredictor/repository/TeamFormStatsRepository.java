@@ -0,0 +1,26 @@
+package com.example.matchpredictor.repository;
+
+import com.example.matchpredictor.entity.TeamFormStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TeamFormStatsRepository extends JpaRepository<TeamFormStats, Integer> {
+
+    // Row lock held until the surrounding transaction ends, so concurrent result updates queue up
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TeamFormStats s WHERE s.teamId = :teamId")
+    Optional<TeamFormStats> findForUpdate(Integer teamId);
+
+    // Creates an empty row unless one exists (or is being created by another transaction); 1 if created
+    @Modifying
+    @Query(value = "INSERT INTO team_form_stats (team_id, recent_results, updated_at) VALUES (:teamId, '', now()) " +
+            "ON CONFLICT (team_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(Integer teamId);
+}
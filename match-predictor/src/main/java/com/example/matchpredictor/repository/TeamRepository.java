@@ -1,6 +1,7 @@
 package com.example.matchpredictor.repository;
 
 import com.example.matchpredictor.entity.Team;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -25,6 +26,11 @@ public interface TeamRepository extends JpaRepository<Team, Integer> {
     @Query("SELECT t FROM Team t ORDER BY t.name ASC")
     List<Team> findAllOrderByName();
 
+    // Keyset page ordered by (name, id) - names are not unique, so id breaks ties
+    @Query("SELECT t FROM Team t WHERE t.name > :afterName OR (t.name = :afterName AND t.id > :afterId) " +
+            "ORDER BY t.name ASC, t.id ASC")
+    List<Team> findPageAfter(String afterName, Integer afterId, Pageable pageable);
+
     // Check if team name exists
     boolean existsByName(String name);
 }
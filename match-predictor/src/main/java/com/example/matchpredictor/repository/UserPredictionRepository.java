@@ -2,31 +2,47 @@ package com.example.matchpredictor.repository;
 
 import com.example.matchpredictor.entity.User;
 import com.example.matchpredictor.entity.UserPrediction;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface UserPredictionRepository extends JpaRepository<UserPrediction, Integer>{
 
+    // User, match and teams are LAZY on the entity; every query that hands out predictions fetches them up front
+    @Override
+    @EntityGraph(attributePaths = {"user", "match", "match.homeTeam", "match.awayTeam"})
+    List<UserPrediction> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"user", "match", "match.homeTeam", "match.awayTeam"})
+    Optional<UserPrediction> findById(Integer id);
+
     // Find predictions by user
+    @EntityGraph(attributePaths = {"user", "match", "match.homeTeam", "match.awayTeam"})
     List<UserPrediction> findByUser(User user);
 
     // Find predictions by user ordered by date
+    @EntityGraph(attributePaths = {"user", "match", "match.homeTeam", "match.awayTeam"})
     @Query("SELECT up FROM UserPrediction up WHERE up.user = :user ORDER BY up.createdAt DESC")
     List<UserPrediction> findByUserOrderByCreatedAtDesc(User user);
 
     // Find predictions by session
+    @EntityGraph(attributePaths = {"user", "match", "match.homeTeam", "match.awayTeam"})
     List<UserPrediction> findBySessionId(String sessionId);
 
     // Find recent predictions by user - CORRECTED (using Pageable)
+    @EntityGraph(attributePaths = {"user", "match", "match.homeTeam", "match.awayTeam"})
     @Query("SELECT up FROM UserPrediction up WHERE up.user = :user ORDER BY up.createdAt DESC")
     List<UserPrediction> findRecentByUser(User user, Pageable pageable);
 
     // Search predictions by prompt content
+    @EntityGraph(attributePaths = {"user", "match", "match.homeTeam", "match.awayTeam"})
     @Query("SELECT up FROM UserPrediction up WHERE LOWER(up.prompt) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<UserPrediction> searchByPrompt(String searchTerm);
 
@@ -0,0 +1,9 @@
+package com.example.matchpredictor.repository;
+
+import com.example.matchpredictor.entity.VectorSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VectorSyncStateRepository extends JpaRepository<VectorSyncState, String> {
+}
@@ -1,20 +1,29 @@
 package com.example.matchpredictor.service;
 
+import com.example.matchpredictor.dto.CursorPage;
 import com.example.matchpredictor.entity.AiPrediction;
 import com.example.matchpredictor.entity.Match;
 import com.example.matchpredictor.repository.AiPredictionRepository;
 import com.example.matchpredictor.repository.MatchRepository;
-import org.springframework.ai.ollama.OllamaChatClient;
-import org.springframework.ai.chat.ChatResponse;
-import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.ollama.api.OllamaApi;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.observation.Observation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @Service
 public class AiPredictionService {
@@ -29,121 +38,353 @@ public class AiPredictionService {
     private MatchRepository matchRepository;
 
     @Autowired
-    private OllamaChatClient ollamaChatClient;
+    private OllamaGateway ollamaGateway;
 
     @Autowired
     private ChromaDbService chromaDbService;
 
+    @Autowired
+    private PredictionAnalyticsService predictionAnalyticsService;
+
+    @Autowired
+    private PredictionCache predictionCache;
+
+    @Autowired
+    private MatchStatsService matchStatsService;
+
+    @Autowired
+    private RagPipelineMetrics ragPipelineMetrics;
+
+    @Autowired
+    @Qualifier("ragRetrievalExecutor")
+    private ExecutorService ragRetrievalExecutor;
+
+    @Value("${rag.retrieval.vector-timeout-ms:3000}")
+    private long vectorTimeoutMs;
+
+    @Value("${rag.retrieval.sql-timeout-ms:2000}")
+    private long sqlTimeoutMs;
+
+    // Ask Ollama for a JSON answer (format=json) instead of the HOME_WIN: ... text format
+    @Value("${prediction.structured-output.enabled:true}")
+    private boolean structuredOutput;
+
+    // LLM calls per structured prediction, the first answer included; after that the text parser takes over
+    @Value("${prediction.structured-output.max-attempts:2}")
+    private int structuredMaxAttempts;
+
+    // Estimated prompt tokens (instructions plus retrieved context); 0 for no limit
+    @Value("${prediction.prompt.token-budget:1536}")
+    private int promptTokenBudget;
+
+    private static final int MAX_REJECTED_ANSWER_CHARS = 1000;
+
+    // The LLM's raw answer and what was read from it
+    record LlmAnswer(String response, PredictionResponseParser.ParsedPrediction parsed) {
+    }
 
     /**
      * Generate prediction using RAG approach:
      * 1. RETRIEVE relevant historical data from ChromaDB
      * 2. AUGMENT the prompt with this data
      * 3. GENERATE AI response based on enriched context
+     * Every step is timed (see RagPipelineMetrics) under one "prediction.rag" observation.
      */
     public AiPrediction generatePrediction(Integer matchId) {
         Match match = matchService.getMatchById(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found with id: " + matchId));
 
+        return ragPipelineMetrics.prediction("generate").observe(() -> generatePrediction(match));
+    }
+
+    private AiPrediction generatePrediction(Match match) {
         // ============ RAG STEP 1: RETRIEVE ============
-        System.out.println("RAG Step 1: Retrieving relevant data from ChromaDB...");
-        String retrievedContext = retrieveRelevantContext(match);
+        RagContext ragContext = retrieveRelevantContext(match);
+
+        // Same match + same retrieved facts -> reuse the earlier answer instead of another LLM round-trip
+        String contextFingerprint = ragContext.fingerprint();
+        Optional<AiPrediction> cachedPrediction = predictionCache.get(match.getId(), contextFingerprint);
+        tagCacheOutcome(cachedPrediction.isPresent());
+        if (cachedPrediction.isPresent()) {
+            return cachedPrediction.get();
+        }
 
         // ============ RAG STEP 2: AUGMENT ============
-        System.out.println("RAG Step 2: Augmenting prompt with retrieved data...");
-        String augmentedPrompt = createRAGPrompt(match, retrievedContext);
+        String augmentedPrompt = augment(match, ragContext, structuredOutput);
 
         try {
             // ============ RAG STEP 3: GENERATE ============
-            System.out.println("RAG Step 3: Generating AI response...");
-            OllamaApi directApi = new OllamaApi("http://localhost:11434");
-            OllamaChatClient directClient = new OllamaChatClient(directApi);
-
-            ChatResponse response = directClient.call(
-                    new Prompt(augmentedPrompt,
-                            org.springframework.ai.ollama.api.OllamaOptions.create()
-                                    .withModel("llama3.2"))
-            );
+            LlmAnswer answer = generateAnswer(augmentedPrompt);
 
-            String aiResponse = response.getResult().getOutput().getContent();
-            AiPrediction prediction = parseAiResponse(match, aiResponse);
-            prediction.setModelVersion("llama3.2-RAG"); // Mark it as RAG-enhanced
+            return savePrediction(match, answer.response(), answer.parsed(), ragContext,
+                    TokenEstimator.estimate(augmentedPrompt));
 
-            // Store RAG context used in parameters
-            prediction.setParameters(String.format(
-                    "{\"rag_enabled\":true,\"context_sources\":\"chromadb\",\"retrieved_matches\":%d}",
-                    countRetrievedMatches(retrievedContext)
-            ));
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating RAG prediction: " + e.getMessage());
+        }
+    }
 
-            // Save to PostgreSQL
-            AiPrediction savedPrediction = aiPredictionRepository.save(prediction);
+    /**
+     * Streaming variant of generatePrediction: same RAG retrieval and prompt,
+     * but tokens are forwarded to the listener as Ollama emits them and the
+     * probability fields are reported as soon as their lines are complete.
+     * Always uses the text format, whose fields can be reported while the answer is still arriving.
+     * The prediction is saved once the stream finishes. Blocks the calling thread.
+     */
+    public void streamPrediction(Integer matchId, PredictionStreamListener listener) {
+        Observation observation = ragPipelineMetrics.prediction("stream").start();
+        try (Observation.Scope scope = observation.openScope()) {
+            Match match = matchService.getMatchById(matchId)
+                    .orElseThrow(() -> new RuntimeException("Match not found with id: " + matchId));
+
+            RagContext ragContext = retrieveRelevantContext(match);
+            String contextFingerprint = ragContext.fingerprint();
+
+            Optional<AiPrediction> cachedPrediction = predictionCache.get(match.getId(), contextFingerprint);
+            tagCacheOutcome(cachedPrediction.isPresent());
+            if (cachedPrediction.isPresent()) {
+                StreamingPredictionParser.replay(cachedPrediction.get(), listener);
+                listener.onComplete(cachedPrediction.get());
+                return;
+            }
 
-            // Store back in ChromaDB for future RAG retrievals
-            chromaDbService.storePrediction(savedPrediction);
+            String augmentedPrompt = augment(match, ragContext, false);
+            StreamingPredictionParser parser = new StreamingPredictionParser(listener);
+
+            AtomicBoolean clientGone = new AtomicBoolean();
+            ragPipelineMetrics.runStage("llm", () -> ollamaGateway.stream(augmentedPrompt)
+                    .takeUntilOther(listener.cancellation().doOnSuccess(done -> clientGone.set(true)))
+                    .doOnNext(token -> {
+                        listener.onToken(token);
+                        parser.accept(token);
+                    })
+                    .blockLast());
+            if (clientGone.get()) {
+                System.out.println("⚠️ Streaming prediction for match " + matchId + " cancelled, client disconnected");
+                return;
+            }
 
-            System.out.println("RAG prediction completed and stored!");
-            return savedPrediction;
+            String aiResponse = parser.finish();
+            listener.onComplete(savePrediction(match, aiResponse, parser.getResult(), ragContext,
+                    TokenEstimator.estimate(augmentedPrompt)));
 
         } catch (Exception e) {
-            throw new RuntimeException("Error generating RAG prediction: " + e.getMessage());
+            observation.error(e);
+            listener.onError(e);
+        } finally {
+            observation.stop();
         }
     }
 
+    /**
+     * RAG step 3 for one prompt built by createRAGPrompt. In structured mode the JSON answer is decoded
+     * by StructuredPredictionDecoder; an answer that breaks the schema is sent back to the model with
+     * what was wrong, and if every attempt fails the last answer is read by the text parser instead.
+     */
+    LlmAnswer generateAnswer(String prompt) {
+        if (!structuredOutput) {
+            String response = ragPipelineMetrics.stage("llm", () -> ollamaGateway.generate(prompt));
+            return new LlmAnswer(response, ragPipelineMetrics.stage("parse", () -> PredictionResponseParser.parse(response)));
+        }
+
+        int maxAttempts = Math.max(1, structuredMaxAttempts);
+        String attemptPrompt = prompt;
+        String response = "";
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            String request = attemptPrompt;
+            String answer = ragPipelineMetrics.stage("llm", () -> ollamaGateway.generateJson(request));
+            response = answer;
+            try {
+                PredictionResponseParser.ParsedPrediction parsed = ragPipelineMetrics.stage("parse",
+                        () -> StructuredPredictionDecoder.decode(answer));
+                ragPipelineMetrics.recordStructuredAnswer(attempt == 1 ? "valid" : "repaired", attempt);
+                return new LlmAnswer(answer, parsed);
+            } catch (StructuredPredictionDecoder.SchemaViolation e) {
+                System.out.println("⚠️ Structured answer rejected (attempt " + attempt + "/" + maxAttempts + "): " + e.getMessage());
+                attemptPrompt = repairPrompt(prompt, answer, e.getMessage());
+            }
+        }
+
+        // Out of attempts: keep whatever the text parser can still read from the last answer
+        ragPipelineMetrics.recordStructuredAnswer("fallback", maxAttempts);
+        return new LlmAnswer(response, PredictionResponseParser.parse(response));
+    }
+
+    // The original prompt again, followed by the rejected answer and why it was rejected
+    private String repairPrompt(String prompt, String rejectedAnswer, String problem) {
+        String shownAnswer = rejectedAnswer.length() > MAX_REJECTED_ANSWER_CHARS
+                ? rejectedAnswer.substring(0, MAX_REJECTED_ANSWER_CHARS) + "..."
+                : rejectedAnswer;
+        return prompt + "\n\nYour previous answer could not be used because " + problem + ".\n"
+                + "Previous answer:\n" + shownAnswer + "\n\n"
+                + "Answer again with only the corrected JSON object.";
+    }
+
+    // Persist the parsed answer and feed it back into ChromaDB and the cache
+    private AiPrediction savePrediction(Match match, String aiResponse, PredictionResponseParser.ParsedPrediction parsed,
+                                        RagContext ragContext, int promptTokens) {
+        AiPrediction prediction = buildPrediction(match, aiResponse, parsed, ragContext.toPromptText(), promptTokens);
+
+        // Save to PostgreSQL
+        AiPrediction savedPrediction = ragPipelineMetrics.stage("db.save", () -> aiPredictionRepository.save(prediction));
+
+        // Store back in ChromaDB for future RAG retrievals
+        ragPipelineMetrics.runStage("chroma.store", () -> chromaDbService.storePrediction(savedPrediction));
+        predictionAnalyticsService.recordPrediction(savedPrediction);
+
+        // A prediction made on partial context must not be served for the complete one later
+        if (ragContext.isComplete()) {
+            predictionCache.put(match, ragContext.fingerprint(), savedPrediction);
+        }
+
+        return savedPrediction;
+    }
+
 
      // RAG STEP 1: Retrieve relevant historical context from multiple sources
 
-    private String retrieveRelevantContext(Match match) {
-        StringBuilder context = new StringBuilder();
+    private RagContext retrieveRelevantContext(Match match) {
+        return ragPipelineMetrics.stage("retrieval", () -> retrieveInParallel(match));
+    }
 
-        // 1. Get historical context from ChromaDB (vector search)
-        if (chromaDbService.isConnected()) {
-            System.out.println("Searching ChromaDB vector store...");
-            String chromaContext = chromaDbService.getHistoricalContext(
-                    match.getHomeTeam().getName(),
-                    match.getAwayTeam().getName()
-            );
+    private RagContext retrieveInParallel(Match match) {
+        boolean chromaConnected = chromaDbService.isConnected();
+        Observation parent = ragPipelineMetrics.currentObservation();
+
+        // The five sources are independent, so they run at once: retrieval costs the slowest source, not the sum
+        CompletableFuture<String> history = chromaConnected
+                ? retrieve("chroma-history", parent, () -> chromaDbService.getHistoricalContext(
+                        match.getHomeTeam().getName(), match.getAwayTeam().getName()), vectorTimeoutMs)
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<String> headToHead = retrieve("head-to-head", parent,
+                () -> getHeadToHeadStats(match), sqlTimeoutMs);
+        CompletableFuture<String> homeForm = retrieve("home-form", parent,
+                () -> getTeamForm(match.getHomeTeam()), sqlTimeoutMs);
+        CompletableFuture<String> awayForm = retrieve("away-form", parent,
+                () -> getTeamForm(match.getAwayTeam()), sqlTimeoutMs);
+        CompletableFuture<List<String>> similarPredictions = chromaConnected
+                ? retrieve("similar-predictions", parent,
+                        () -> chromaDbService.searchSimilarPredictions(similarPredictionsQuery(match), 3), vectorTimeoutMs)
+                : CompletableFuture.completedFuture(List.of());
+
+        // A slow or failing source is left out of the prompt instead of failing the prediction
+        List<String> missingSources = new ArrayList<>();
+        RagContext context = assembleRagContext(match,
+                await(history, "chroma-history", null, missingSources),
+                await(headToHead, "head-to-head", "", missingSources),
+                await(homeForm, "home-form", "", missingSources),
+                await(awayForm, "away-form", "", missingSources),
+                await(similarPredictions, "similar-predictions", List.of(), missingSources));
+        context.setMissingSources(missingSources);
+
+        return context;
+    }
 
-            if (chromaContext != null && !chromaContext.contains("No relevant")) {
-                context.append(chromaContext);
-            }
+    private <T> CompletableFuture<T> retrieve(String name, Observation parent, Supplier<T> source, long timeoutMs) {
+        return CompletableFuture.supplyAsync(() -> ragPipelineMetrics.retrieval(name, parent, source), ragRetrievalExecutor)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> T await(CompletableFuture<T> future, String source, T fallback, List<String> missingSources) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            String reason = e.getCause() instanceof TimeoutException ? "timed out" : String.valueOf(e.getCause());
+            System.out.println("⚠️ RAG source " + source + " skipped: " + reason);
+            ragPipelineMetrics.retrievalSkipped(source);
+            missingSources.add(source);
+            return fallback;
+        }
+    }
+
+    // Batch predictions pass in ChromaDB results fetched in bulk and run the PostgreSQL steps here
+    RagContext buildRagContext(Match match, String chromaContext, List<String> similarPredictions) {
+        return assembleRagContext(match,
+                chromaContext,
+                getHeadToHeadStats(match),
+                getTeamForm(match.getHomeTeam()),
+                getTeamForm(match.getAwayTeam()),
+                similarPredictions);
+    }
+
+    private RagContext assembleRagContext(Match match, String chromaContext, String headToHead,
+                                          String homeForm, String awayForm, List<String> similarPredictions) {
+        RagContext context = new RagContext();
+
+        if (chromaContext != null && !chromaContext.contains("No relevant")
+                && !chromaContext.contains("No historical")) {
+            context.setHistoricalContext(chromaContext);
         }
 
-        // 2. Get head-to-head statistics from PostgreSQL
-        System.out.println("Querying PostgreSQL for head-to-head...");
-        String h2hStats = getHeadToHeadStats(match);
-        context.append(h2hStats);
-
-        // 3. Get recent form from PostgreSQL
-        System.out.println("Analyzing recent form...");
-        String formStats = getTeamFormStats(match);
-        context.append(formStats);
-
-        // 4. Get similar predictions from ChromaDB
-        if (chromaDbService.isConnected()) {
-            System.out.println("Finding similar past predictions...");
-            List<String> similarPredictions = chromaDbService.searchSimilarPredictions(
-                    String.format("predictions for %s vs %s or similar matchups in %s",
-                            match.getHomeTeam().getName(),
-                            match.getAwayTeam().getName(),
-                            match.getLeague()),
-                    3
-            );
-
-            if (!similarPredictions.isEmpty() && !similarPredictions.get(0).contains("not connected")) {
-                context.append("\n=== SIMILAR PAST PREDICTIONS ===\n");
-                for (int i = 0; i < similarPredictions.size(); i++) {
-                    context.append(String.format("%d. %s\n", i + 1, similarPredictions.get(i)));
-                }
+        context.setHeadToHead(headToHead);
+        context.setTeamForm(getTeamFormStats(match, homeForm, awayForm));
+
+        if (!similarPredictions.isEmpty() && !similarPredictions.get(0).contains("not connected")) {
+            List<String> documents = new ArrayList<>(similarPredictions.size());
+            for (int i = 0; i < similarPredictions.size(); i++) {
+                documents.add(String.format("%d. %s\n", i + 1, similarPredictions.get(i)));
             }
+            context.setSimilarPredictions(RagContext.SIMILAR_PREDICTIONS_HEADER + String.join("", documents));
+            context.setSimilarPredictionDocuments(documents);
         }
 
-        return context.toString();
+        return context;
+    }
+
+    // RAG step 2, timed, with the prompt size recorded
+    private String augment(Match match, RagContext ragContext, boolean structured) {
+        String prompt = ragPipelineMetrics.stage("prompt", () -> buildPrompt(match, ragContext, structured));
+        ragPipelineMetrics.recordPrompt(prompt);
+        return prompt;
+    }
+
+    // Prompt for a match with its retrieved context fitted into prediction.prompt.token-budget
+    String buildPrompt(Match match, RagContext ragContext) {
+        return buildPrompt(match, ragContext, structuredOutput);
+    }
+
+    private String buildPrompt(Match match, RagContext ragContext, boolean structured) {
+        // The instructions are always sent; the retrieved context gets what is left of the budget
+        int contextBudget = promptTokenBudget > 0
+                ? Math.max(1, promptTokenBudget - TokenEstimator.estimate(createRAGPrompt(match, "", structured)))
+                : 0;
+        PromptBudget.Fitted context = ragContext.toPromptText(contextBudget);
+        for (String section : context.trimmedSections()) {
+            ragPipelineMetrics.recordContextTrimmed(section);
+        }
+        return createRAGPrompt(match, context.text(), structured);
+    }
+
+    // Lets the latency of cache hits and real generations be told apart
+    private void tagCacheOutcome(boolean hit) {
+        Observation current = ragPipelineMetrics.currentObservation();
+        if (current != null) {
+            current.lowCardinalityKeyValue("cache", hit ? "hit" : "miss");
+        }
+    }
+
+    String similarPredictionsQuery(Match match) {
+        return String.format("predictions for %s vs %s or similar matchups in %s",
+                match.getHomeTeam().getName(),
+                match.getAwayTeam().getName(),
+                match.getLeague());
     }
 
 
      //RAG STEP 2: Create augmented prompt with retrieved context
 
-    private String createRAGPrompt(Match match, String retrievedContext) {
+    private static final String TEXT_FORMAT = """
+            Format your response as:
+            HOME_WIN: [percentage]
+            DRAW: [percentage]
+            AWAY_WIN: [percentage]
+            REASONING: [analysis citing specific retrieved data points]""";
+
+    String createRAGPrompt(Match match, String retrievedContext) {
+        return createRAGPrompt(match, retrievedContext, structuredOutput);
+    }
+
+    String createRAGPrompt(Match match, String retrievedContext, boolean structured) {
         return String.format("""
             You are a professional football analyst using RAG (Retrieval-Augmented Generation).
             You have access to REAL HISTORICAL DATA retrieved from our database.
@@ -172,11 +413,7 @@ public class AiPredictionService {
             - If no relevant data was retrieved, state this clearly
             - Probabilities must sum to exactly 100
             
-            Format your response as:
-            HOME_WIN: [percentage]
-            DRAW: [percentage]
-            AWAY_WIN: [percentage]
-            REASONING: [analysis citing specific retrieved data points]
+            %s
             """,
                 match.getHomeTeam().getName(),
                 match.getHomeTeam().getCountry(),
@@ -187,56 +424,37 @@ public class AiPredictionService {
                 match.getMatchDate(),
                 retrievedContext.isEmpty() ?
                         "No historical data available for these teams. Base prediction on general patterns." :
-                        retrievedContext
+                        retrievedContext,
+                structured ? StructuredPredictionDecoder.SCHEMA_INSTRUCTIONS : TEXT_FORMAT
         );
     }
 
 
-     // Get head-to-head statistics from database
+     // Get head-to-head statistics from the materialized head_to_head_stats table
 
-    private String getHeadToHeadStats(Match match) {
-        List<Match> h2hMatches = matchRepository.findMatchesBetweenTeams(
-                match.getHomeTeam(),
-                match.getAwayTeam()
+    String getHeadToHeadStats(Match match) {
+        MatchStatsService.HeadToHeadRecord h2h = matchStatsService.getHeadToHead(
+                match.getHomeTeam().getId(),
+                match.getAwayTeam().getId()
         );
 
-        if (h2hMatches.isEmpty()) {
+        if (h2h.matches() == 0) {
             return "\nHEAD-TO-HEAD\nNo previous matches found.\n\n";
         }
 
         StringBuilder stats = new StringBuilder("\nHEAD-TO-HEAD STATISTICS\n");
-        stats.append(String.format("Total matches: %d\n", h2hMatches.size()));
-
-        int homeWins = 0, draws = 0, awayWins = 0;
-        int totalHomeGoals = 0, totalAwayGoals = 0;
-
-        for (Match m : h2hMatches) {
-            if ("FINISHED".equals(m.getStatus())) {
-                boolean homeIsTeam1 = m.getHomeTeam().getId().equals(match.getHomeTeam().getId());
-                int team1Score = homeIsTeam1 ? m.getHomeScore() : m.getAwayScore();
-                int team2Score = homeIsTeam1 ? m.getAwayScore() : m.getHomeScore();
-
-                totalHomeGoals += team1Score;
-                totalAwayGoals += team2Score;
-
-                if (team1Score > team2Score) homeWins++;
-                else if (team1Score < team2Score) awayWins++;
-                else draws++;
-            }
-        }
-
-        int total = homeWins + draws + awayWins;
-        if (total > 0) {
-            stats.append(String.format("%s: %d wins (%.0f%%)\n",
-                    match.getHomeTeam().getName(), homeWins, (homeWins * 100.0 / total)));
-            stats.append(String.format("Draws: %d (%.0f%%)\n",
-                    draws, (draws * 100.0 / total)));
-            stats.append(String.format("%s: %d wins (%.0f%%)\n",
-                    match.getAwayTeam().getName(), awayWins, (awayWins * 100.0 / total)));
-            stats.append(String.format("Average goals: %s %.1f - %.1f %s\n\n",
-                    match.getHomeTeam().getName(), (totalHomeGoals * 1.0 / total),
-                    (totalAwayGoals * 1.0 / total), match.getAwayTeam().getName()));
-        }
+        stats.append(String.format("Total matches: %d\n", h2h.matches()));
+
+        int total = h2h.matches();
+        stats.append(String.format("%s: %d wins (%.0f%%)\n",
+                match.getHomeTeam().getName(), h2h.wins(), (h2h.wins() * 100.0 / total)));
+        stats.append(String.format("Draws: %d (%.0f%%)\n",
+                h2h.draws(), (h2h.draws() * 100.0 / total)));
+        stats.append(String.format("%s: %d wins (%.0f%%)\n",
+                match.getAwayTeam().getName(), h2h.losses(), (h2h.losses() * 100.0 / total)));
+        stats.append(String.format("Average goals: %s %.1f - %.1f %s\n\n",
+                match.getHomeTeam().getName(), (h2h.goalsFor() * 1.0 / total),
+                (h2h.goalsAgainst() * 1.0 / total), match.getAwayTeam().getName()));
 
         return stats.toString();
     }
@@ -244,27 +462,22 @@ public class AiPredictionService {
 
      // Get team form statistics
 
-    private String getTeamFormStats(Match match) {
+    private String getTeamFormStats(Match match, String homeForm, String awayForm) {
         StringBuilder stats = new StringBuilder();
 
         // Home team form
         stats.append(String.format("RECENT FORM \n", match.getHomeTeam().getName().toUpperCase()));
-        stats.append(getTeamForm(match.getHomeTeam()));
+        stats.append(homeForm);
 
         // Away team form
         stats.append(String.format("RECENT FORM\n", match.getAwayTeam().getName().toUpperCase()));
-        stats.append(getTeamForm(match.getAwayTeam()));
+        stats.append(awayForm);
 
         return stats.toString();
     }
 
-    private String getTeamForm(com.example.matchpredictor.entity.Team team) {
-        List<Match> recentMatches = matchRepository.findByTeam(team)
-                .stream()
-                .filter(m -> "FINISHED".equals(m.getStatus()))
-                .sorted((m1, m2) -> m2.getMatchDate().compareTo(m1.getMatchDate()))
-                .limit(5)
-                .toList();
+    String getTeamForm(com.example.matchpredictor.entity.Team team) {
+        List<MatchStatsService.FormEntry> recentMatches = matchStatsService.getRecentForm(team.getId());
 
         if (recentMatches.isEmpty()) {
             return "No recent matches available.\n\n";
@@ -274,25 +487,13 @@ public class AiPredictionService {
         int wins = 0, draws = 0, losses = 0;
 
         form.append("Last 5 matches:\n");
-        for (Match m : recentMatches) {
-            boolean isHome = m.getHomeTeam().getId().equals(team.getId());
-            int teamScore = isHome ? m.getHomeScore() : m.getAwayScore();
-            int opponentScore = isHome ? m.getAwayScore() : m.getHomeScore();
-            String opponent = isHome ? m.getAwayTeam().getName() : m.getHomeTeam().getName();
-
-            char result;
-            if (teamScore > opponentScore) {
-                wins++;
-                result = 'W';
-            } else if (teamScore < opponentScore) {
-                losses++;
-                result = 'L';
-            } else {
-                draws++;
-                result = 'D';
-            }
+        for (MatchStatsService.FormEntry m : recentMatches) {
+            char result = m.result();
+            if (result == 'W') wins++;
+            else if (result == 'L') losses++;
+            else draws++;
 
-            form.append(String.format("  vs %s: %d-%d (%c)\n", opponent, teamScore, opponentScore, result));
+            form.append(String.format("  vs %s: %d-%d (%c)\n", m.opponent(), m.teamScore(), m.opponentScore(), result));
         }
 
         form.append(String.format("Form: %dW-%dD-%dL (%d points from 15)\n\n",
@@ -301,6 +502,29 @@ public class AiPredictionService {
         return form.toString();
     }
 
+    // Parsed, not yet saved prediction tagged with the RAG model version and context parameters
+    AiPrediction buildPrediction(Match match, String aiResponse, PredictionResponseParser.ParsedPrediction parsed,
+                                 String retrievedContext, int promptTokens) {
+        ragPipelineMetrics.recordParse("rag", parsed.outcome());
+        AiPrediction prediction = new AiPrediction();
+        prediction.setMatch(match);
+        parsed.applyTo(prediction, aiResponse);
+        prediction.setModelVersion(ollamaGateway.getModel() + "-RAG"); // Mark it as RAG-enhanced
+        prediction.setPromptTokens(promptTokens);
+
+        // Store RAG context used in parameters, with the facts the model says it relied on
+        ObjectNode parameters = JsonNodeFactory.instance.objectNode()
+                .put("rag_enabled", true)
+                .put("context_sources", "chromadb")
+                .put("retrieved_matches", countRetrievedMatches(retrievedContext));
+        if (!parsed.citedFacts().isEmpty()) {
+            parameters.putArray("cited_facts").addAll(parsed.citedFacts().stream()
+                    .map(JsonNodeFactory.instance::textNode).toList());
+        }
+        prediction.setParameters(parameters.toString());
+        return prediction;
+    }
+
     private int countRetrievedMatches(String context) {
         // Simple count of how many matches were found in context
         return context.split("Match|match").length - 1;
@@ -327,53 +551,16 @@ public class AiPredictionService {
         return aiPredictionRepository.findAll();
     }
 
-    private AiPrediction parseAiResponse(Match match, String aiResponse) {
-        AiPrediction prediction = new AiPrediction();
-        prediction.setMatch(match);
-
-        BigDecimal homeWin = new BigDecimal("33.33");
-        BigDecimal draw = new BigDecimal("33.34");
-        BigDecimal awayWin = new BigDecimal("33.33");
-
-        StringBuilder reasoningBuilder = new StringBuilder();
-        boolean inReasoning = false;
-
-        String[] lines = aiResponse.split("\n");
-
-        for (String line : lines) {
-            line = line.trim();
-
-            if (line.startsWith("HOME_WIN:")) {
-                homeWin = new BigDecimal(line.replace("HOME_WIN:", "").replace("%", "").trim());
-            } else if (line.startsWith("DRAW:")) {
-                draw = new BigDecimal(line.replace("DRAW:", "").replace("%", "").trim());
-            } else if (line.startsWith("AWAY_WIN:")) {
-                awayWin = new BigDecimal(line.replace("AWAY_WIN:", "").replace("%", "").trim());
-            } else if (line.startsWith("REASONING:")) {
-                inReasoning = true;
-                reasoningBuilder.append(line.replace("REASONING:", "").trim());
-            } else if (inReasoning) {
-                reasoningBuilder.append(" ").append(line);
-            }
-        }
-
-        String reasoning = reasoningBuilder.toString().trim();
-
-        // 🔐 FALLBACK OBLIGATORIU
-        if (reasoning.isBlank()) {
-            reasoning = "AI did not provide explicit reasoning. Full response: " + aiResponse;
-        }
-
-        prediction.setHomeWinProbability(homeWin);
-        prediction.setDrawProbability(draw);
-        prediction.setAwayWinProbability(awayWin);
-        prediction.setReasoning(reasoning);
-        prediction.setConfidenceScore(new BigDecimal("0.75"));
-
-        return prediction;
+    // One page of predictions, newest first; cursor is the nextCursor of the previous page (null for the first)
+    public CursorPage<AiPrediction> getPredictionsPage(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        Integer beforeId = cursor != null
+                ? Integer.valueOf(CursorPage.decodeCursor(cursor, 1)[0])
+                : Integer.MAX_VALUE;
+        List<AiPrediction> rows = aiPredictionRepository.findPageBeforeId(beforeId, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, p -> CursorPage.encodeCursor(p.getId()));
     }
 
-
     public String getPredictionStats() {
         Long correct = aiPredictionRepository.countCorrectPredictions();
         Long total = aiPredictionRepository.countEvaluatedPredictions();
@@ -383,6 +570,14 @@ public class AiPredictionService {
         }
 
         double accuracy = (correct.doubleValue() / total.doubleValue()) * 100;
-        return String.format("Accuracy: %.2f%% (%d correct out of %d predictions)", accuracy, correct, total);
+        String stats = String.format("Accuracy: %.2f%% (%d correct out of %d predictions)", accuracy, correct, total);
+
+        // Probabilistic quality, lower is better
+        List<Object[]> scores = aiPredictionRepository.averageEvaluationScores();
+        if (!scores.isEmpty() && scores.get(0)[0] != null) {
+            stats += String.format(" | Brier score: %.4f | Log loss: %.4f",
+                    ((Number) scores.get(0)[0]).doubleValue(), ((Number) scores.get(0)[1]).doubleValue());
+        }
+        return stats;
     }
 }
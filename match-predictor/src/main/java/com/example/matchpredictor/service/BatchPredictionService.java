@@ -0,0 +1,155 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.dto.BatchPredictionResult;
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.entity.Match;
+import com.example.matchpredictor.repository.AiPredictionBatchRepository;
+import com.example.matchpredictor.repository.MatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Pre-computes RAG predictions for a whole round of fixtures:
+ * ChromaDB is queried once per collection for all matches, the SQL retrieval
+ * runs in parallel, LLM calls share OllamaGateway's limit with every other prediction,
+ * and all new predictions are written with one JDBC batch and one ChromaDB add.
+ */
+@Service
+public class BatchPredictionService {
+
+    @Autowired
+    private AiPredictionService aiPredictionService;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private ChromaDbService chromaDbService;
+
+    @Autowired
+    private PredictionCache predictionCache;
+
+    @Autowired
+    private AiPredictionBatchRepository aiPredictionBatchRepository;
+
+    @Autowired
+    private PredictionAnalyticsService predictionAnalyticsService;
+
+    @Autowired
+    @Qualifier("batchPredictionExecutor")
+    private ExecutorService batchPredictionExecutor;
+
+    // Matches of a matchday: by date window (optionally one league), or every match of a league
+    public List<Match> findMatchday(LocalDateTime from, LocalDateTime to, String league) {
+        if (from != null && to != null) {
+            if (from.isAfter(to)) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+            return matchRepository.findByMatchDateBetween(from, to).stream()
+                    .filter(m -> league == null || league.equalsIgnoreCase(m.getLeague()))
+                    .toList();
+        }
+        if (league != null) {
+            return matchRepository.findByLeague(league);
+        }
+        throw new IllegalArgumentException("Provide a from/to date range or a league");
+    }
+
+    public BatchPredictionResult predictMatches(List<Match> matches) {
+        List<Match> fixtures = matches.stream()
+                .filter(m -> !"FINISHED".equals(m.getStatus()))
+                .toList();
+
+        if (fixtures.isEmpty()) {
+            return new BatchPredictionResult(0, 0, List.of(), Map.of());
+        }
+
+        // 1. ChromaDB retrieval for the whole matchday, one request per collection
+        List<String> histories = Collections.nCopies(fixtures.size(), null);
+        List<List<String>> similarPredictions = Collections.nCopies(fixtures.size(), List.of());
+        if (chromaDbService.isConnected()) {
+            histories = chromaDbService.getHistoricalContexts(fixtures);
+            similarPredictions = chromaDbService.searchSimilarPredictions(
+                    fixtures.stream().map(aiPredictionService::similarPredictionsQuery).toList(), 3);
+        }
+
+        // 2. SQL retrieval + generation per match, in parallel; Ollama calls wait for OllamaGateway's permits
+        List<CompletableFuture<BatchItem>> futures = new ArrayList<>(fixtures.size());
+        for (int i = 0; i < fixtures.size(); i++) {
+            Match match = fixtures.get(i);
+            String history = histories.get(i);
+            List<String> similar = similarPredictions.get(i);
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> predictOne(match, history, similar), batchPredictionExecutor));
+        }
+
+        List<AiPrediction> cached = new ArrayList<>();
+        List<BatchItem> generated = new ArrayList<>();
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        for (CompletableFuture<BatchItem> future : futures) {
+            BatchItem item = future.join();
+            if (item.error() != null) {
+                failures.put(item.match().getId(), item.error());
+            } else if (item.cached()) {
+                cached.add(item.prediction());
+            } else {
+                generated.add(item);
+            }
+        }
+
+        // 3. Persist everything new in bulk
+        List<AiPrediction> newPredictions = aiPredictionBatchRepository.insertAll(
+                new ArrayList<>(generated.stream().map(BatchItem::prediction).toList()));
+        chromaDbService.storePredictions(newPredictions);
+        predictionAnalyticsService.recordPredictions(newPredictions);
+        for (BatchItem item : generated) {
+            predictionCache.put(item.match(), item.contextFingerprint(), item.prediction());
+        }
+
+        List<AiPrediction> all = new ArrayList<>(cached);
+        all.addAll(newPredictions);
+        System.out.println("Batch prediction finished: " + newPredictions.size() + " generated, "
+                + cached.size() + " cached, " + failures.size() + " failed");
+
+        return new BatchPredictionResult(fixtures.size(), cached.size(), all, failures);
+    }
+
+    private BatchItem predictOne(Match match, String history, List<String> similar) {
+        try {
+            RagContext ragContext = aiPredictionService.buildRagContext(match, history, similar);
+            String retrievedContext = ragContext.toPromptText();
+            String contextFingerprint = ragContext.fingerprint();
+
+            Optional<AiPrediction> cachedPrediction = predictionCache.get(match.getId(), contextFingerprint);
+            if (cachedPrediction.isPresent()) {
+                return new BatchItem(match, cachedPrediction.get(), contextFingerprint, true, null);
+            }
+
+            String prompt = aiPredictionService.buildPrompt(match, ragContext);
+
+            AiPredictionService.LlmAnswer answer = aiPredictionService.generateAnswer(prompt);
+
+            AiPrediction prediction = aiPredictionService.buildPrediction(
+                    match, answer.response(), answer.parsed(), retrievedContext, TokenEstimator.estimate(prompt));
+            return new BatchItem(match, prediction, contextFingerprint, false, null);
+
+        } catch (Exception e) {
+            return new BatchItem(match, null, null, false, e.getMessage());
+        }
+    }
+
+    private record BatchItem(Match match, AiPrediction prediction, String contextFingerprint,
+                             boolean cached, String error) {
+    }
+}
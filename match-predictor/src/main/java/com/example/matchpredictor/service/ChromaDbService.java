@@ -20,156 +20,83 @@ public class ChromaDbService {
     @Autowired
     private MatchRepository matchRepository;
 
-    private Object client;
-    private Object predictionCollection;
-    private Object matchHistoryCollection;
-    private Object analyticsCollection;
+    @Autowired
+    private VectorStore vectorStore;
+
+    static final String PREDICTIONS = "match_predictions";
+    static final String MATCH_HISTORY = "match_history";
+    static final String ANALYTICS = "prediction_analytics";
+
     private boolean isConnected = false;
 
     @PostConstruct
     public void init() {
-        System.out.println("CHROMADB CONNECTION DEBUG:");
+        if (!vectorStore.isAvailable()) {
+            System.out.println("ℹ️ Vector store not available - RAG will use PostgreSQL data only");
+            return;
+        }
 
         try {
-            System.out.println("1. Loading classes...");
-            Class<?> clientClass = Class.forName("tech.amikos.chromadb.Client");
-            Class<?> embeddingFunctionClass = Class.forName("tech.amikos.chromadb.embeddings.EmbeddingFunction");
-            System.out.println("   ✓ Classes loaded");
-
-            System.out.println("2. Creating client...");
-            client = clientClass.getConstructor(String.class)
-                    .newInstance("http://localhost:8000");
-            System.out.println("   ✓ Client created");
-
-            System.out.println("3. Looking for default embedding function...");
-            Object defaultEmbeddingFunction = null;
-
-            // Try to find a default embedding function
-            try {
-                Class<?> defaultEFClass = Class.forName("tech.amikos.chromadb.embeddings.DefaultEmbeddingFunction");
-                defaultEmbeddingFunction = defaultEFClass.getConstructor().newInstance();
-                System.out.println("   ✓ Using DefaultEmbeddingFunction");
-            } catch (ClassNotFoundException e1) {
-                // Try OpenAI embedding function with null (some versions allow it)
-                try {
-                    Class<?> openAIEFClass = Class.forName("tech.amikos.chromadb.embeddings.openai.OpenAIEmbeddingFunction");
-                    // Leave as null - we'll handle this differently
-                    System.out.println("   ℹ️ No default embedding function found, trying without embeddings");
-                } catch (ClassNotFoundException e2) {
-                    System.out.println("   ⚠️ No embedding function classes found");
-                }
+            // Touch each collection once so they exist before the first request
+            for (String collection : List.of(PREDICTIONS, MATCH_HISTORY, ANALYTICS)) {
+                vectorStore.count(collection);
             }
 
-            System.out.println("4. Getting collection methods...");
-            var createCollectionMethod = clientClass.getMethod("createCollection",
-                    String.class, Map.class, Boolean.class, embeddingFunctionClass);
-            var getCollectionMethod = clientClass.getMethod("getCollection",
-                    String.class, embeddingFunctionClass);
-            System.out.println("   ✓ Methods found");
-
-            System.out.println("5. Creating collections...");
-
-            // Create collections
-            predictionCollection = getOrCreateCollection(
-                    "match_predictions", createCollectionMethod, getCollectionMethod, defaultEmbeddingFunction);
-            System.out.println("   ✓ match_predictions ready");
-
-            matchHistoryCollection = getOrCreateCollection(
-                    "match_history", createCollectionMethod, getCollectionMethod, defaultEmbeddingFunction);
-            System.out.println("   ✓ match_history ready");
-
-            analyticsCollection = getOrCreateCollection(
-                    "prediction_analytics", createCollectionMethod, getCollectionMethod, defaultEmbeddingFunction);
-            System.out.println("   ✓ prediction_analytics ready");
-
             isConnected = true;
-            System.out.println("✅ ChromaDB connected successfully!");
+            System.out.println("✅ Vector store connected successfully! (" + vectorStore.getName() + ")");
             System.out.println("   📊 Collections: predictions, match_history, analytics");
-
-            initializeCollections();
+            // Existing rows are loaded by VectorBackfillService once the application is ready
 
         } catch (Exception e) {
-            System.out.println("❌ Connection failed: " + e.getClass().getSimpleName());
-            System.out.println("   Message: " + e.getMessage());
-            if (e.getCause() != null) {
-                System.out.println("   Cause: " + e.getCause().getMessage());
-            }
-            e.printStackTrace();
+            System.out.println("❌ Connection failed: " + e.getMessage());
             isConnected = false;
         }
-
-        System.out.println("=== END DEBUG ===");
-    }
-
-    private Object getOrCreateCollection(String name,
-                                         java.lang.reflect.Method createMethod,
-                                         java.lang.reflect.Method getMethod,
-                                         Object embeddingFunction) throws Exception {
-        try {
-            System.out.println("   Trying to get existing collection: " + name);
-            return getMethod.invoke(client, name, embeddingFunction);
-        } catch (Exception e) {
-            System.out.println("   Collection not found, creating: " + name);
-            // If embedding function is still null, skip for now
-            if (embeddingFunction == null) {
-                System.out.println("   ⚠️ Skipping collection creation (no embedding function)");
-                throw new RuntimeException("Cannot create collection without embedding function");
-            }
-            return createMethod.invoke(client, name, null, true, embeddingFunction);
-        }
     }
 
     /**
-     * MARK 9 REQUIREMENT: Initialize collections with existing data
+     * MARK 9 - HISTORY TRACKING: Store prediction with rich metadata
      */
-    private void initializeCollections() {
-        if (!isConnected) return;
+    public void storePrediction(AiPrediction prediction) {
+        if (!isConnected) {
+            System.out.println("ℹ️ ChromaDB not available - skipping vector storage");
+            return;
+        }
 
         try {
-            // Store all existing predictions
-            List<AiPrediction> predictions = aiPredictionRepository.findAll();
-            System.out.println("📥 Loading " + predictions.size() + " predictions into ChromaDB...");
-
-            for (AiPrediction pred : predictions) {
-                storePrediction(pred);
-            }
-
-            // Store all finished matches for context reuse
-            List<Match> matches = matchRepository.findAll()
-                    .stream()
-                    .filter(m -> "FINISHED".equals(m.getStatus()))
-                    .toList();
-
-            System.out.println("📥 Loading " + matches.size() + " finished matches...");
-            for (Match match : matches) {
-                storeMatchHistory(match);
-            }
-
-            // Generate analytics
-            generateAnalytics();
+            String id = "prediction_" + prediction.getId();
+            vectorStore.upsert(PREDICTIONS, List.of(toPredictionDocument(prediction)));
 
-            System.out.println("✅ ChromaDB initialization complete!");
+            System.out.println("✅ Stored prediction in ChromaDB: " + id);
 
         } catch (Exception e) {
-            System.out.println("⚠️ Initialization failed: " + e.getMessage());
+            System.out.println("⚠️ ChromaDB storage failed: " + e.getMessage());
         }
     }
 
     /**
-     * MARK 9 - HISTORY TRACKING: Store prediction with rich metadata
+     * Store many predictions with a single add call (one HTTP request, one embedding batch)
      */
-    public void storePrediction(AiPrediction prediction) {
-        if (!isConnected || predictionCollection == null) {
-            System.out.println("ℹ️ ChromaDB not available - skipping vector storage");
-            return;
-        }
+    public void storePredictions(List<AiPrediction> predictions) {
+        if (!isConnected || predictions.isEmpty()) return;
 
         try {
-            String id = "prediction_" + prediction.getId();
-            Match match = prediction.getMatch();
+            vectorStore.upsert(PREDICTIONS, predictions.stream().map(this::toPredictionDocument).toList());
+            System.out.println("✅ Stored " + predictions.size() + " predictions in ChromaDB");
 
-            // Rich semantic document for vector search
-            String document = String.format("""
+        } catch (Exception e) {
+            System.out.println("⚠️ ChromaDB bulk storage failed: " + e.getMessage());
+        }
+    }
+
+    VectorDocument toPredictionDocument(AiPrediction prediction) {
+        return new VectorDocument("prediction_" + prediction.getId(),
+                buildPredictionDocument(prediction), buildPredictionMetadata(prediction));
+    }
+
+    // Rich semantic document for vector search
+    private String buildPredictionDocument(AiPrediction prediction) {
+        Match match = prediction.getMatch();
+        return String.format("""
                 AI Prediction for %s vs %s in %s league.
                 Predicted probabilities: Home win %.2f%%, Draw %.2f%%, Away win %.2f%%.
                 AI reasoning: %s
@@ -177,171 +104,132 @@ public class ChromaDbService {
                 Model version: %s, Confidence: %.2f.
                 This prediction was made for a %s match.
                 """,
-                    match.getHomeTeam().getName(),
-                    match.getAwayTeam().getName(),
-                    match.getLeague(),
-                    prediction.getHomeWinProbability(),
-                    prediction.getDrawProbability(),
-                    prediction.getAwayWinProbability(),
-                    prediction.getReasoning(),
-                    match.getVenue() != null ? match.getVenue() : "TBD",
-                    match.getMatchDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-                    prediction.getModelVersion() != null ? prediction.getModelVersion() : "unknown",
-                    prediction.getConfidenceScore() != null ? prediction.getConfidenceScore() : 0.0,
-                    match.getLeague()
-            );
-
-            Map<String, String> metadata = new HashMap<>();
-            metadata.put("prediction_id", prediction.getId().toString());
-            metadata.put("match_id", match.getId().toString());
-            metadata.put("home_team", match.getHomeTeam().getName());
-            metadata.put("away_team", match.getAwayTeam().getName());
-            metadata.put("league", match.getLeague());
-            metadata.put("home_prob", prediction.getHomeWinProbability().toString());
-            metadata.put("draw_prob", prediction.getDrawProbability().toString());
-            metadata.put("away_prob", prediction.getAwayWinProbability().toString());
-            metadata.put("timestamp", prediction.getCreatedAt().toString());
-
-            var addMethod = predictionCollection.getClass().getMethod("add",
-                    List.class, List.class, List.class, List.class);
-            addMethod.invoke(predictionCollection,
-                    null, List.of(metadata), List.of(document), List.of(id));
-
-            System.out.println("✅ Stored prediction in ChromaDB: " + id);
+                match.getHomeTeam().getName(),
+                match.getAwayTeam().getName(),
+                match.getLeague(),
+                prediction.getHomeWinProbability(),
+                prediction.getDrawProbability(),
+                prediction.getAwayWinProbability(),
+                prediction.getReasoning(),
+                match.getVenue() != null ? match.getVenue() : "TBD",
+                match.getMatchDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                prediction.getModelVersion() != null ? prediction.getModelVersion() : "unknown",
+                prediction.getConfidenceScore() != null ? prediction.getConfidenceScore() : 0.0,
+                match.getLeague()
+        );
+    }
 
-        } catch (Exception e) {
-            System.out.println("⚠️ ChromaDB storage failed: " + e.getMessage());
-        }
+    private Map<String, String> buildPredictionMetadata(AiPrediction prediction) {
+        Match match = prediction.getMatch();
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("prediction_id", prediction.getId().toString());
+        metadata.put("match_id", match.getId().toString());
+        metadata.put("home_team", match.getHomeTeam().getName());
+        metadata.put("away_team", match.getAwayTeam().getName());
+        metadata.put("league", match.getLeague());
+        metadata.put("home_prob", prediction.getHomeWinProbability().toString());
+        metadata.put("draw_prob", prediction.getDrawProbability().toString());
+        metadata.put("away_prob", prediction.getAwayWinProbability().toString());
+        metadata.put("timestamp", prediction.getCreatedAt().toString());
+        return metadata;
     }
 
     /**
      * MARK 9 - CONTEXT REUSE: Store match history for future predictions
      */
     public void storeMatchHistory(Match match) {
-        if (!isConnected || matchHistoryCollection == null) return;
+        if (!isConnected) return;
 
         try {
-            String id = "match_" + match.getId();
-
-            String document = String.format("""
-                Historical match: %s vs %s in %s.
-                Final result: %s %d - %d %s.
-                Venue: %s, Date: %s.
-                Match outcome: %s.
-                Goal difference: %d.
-                %s performance: scored %d goals.
-                %s performance: scored %d goals.
-                This was a %s league match.
-                """,
-                    match.getHomeTeam().getName(),
-                    match.getAwayTeam().getName(),
-                    match.getLeague(),
-                    match.getHomeTeam().getName(),
-                    match.getHomeScore(),
-                    match.getAwayScore(),
-                    match.getAwayTeam().getName(),
-                    match.getVenue() != null ? match.getVenue() : "Unknown",
-                    match.getMatchDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
-                    determineOutcome(match),
-                    Math.abs(match.getHomeScore() - match.getAwayScore()),
-                    match.getHomeTeam().getName(),
-                    match.getHomeScore(),
-                    match.getAwayTeam().getName(),
-                    match.getAwayScore(),
-                    match.getLeague()
-            );
-
-            Map<String, String> metadata = new HashMap<>();
-            metadata.put("match_id", match.getId().toString());
-            metadata.put("home_team", match.getHomeTeam().getName());
-            metadata.put("away_team", match.getAwayTeam().getName());
-            metadata.put("result", String.format("%d-%d", match.getHomeScore(), match.getAwayScore()));
-            metadata.put("winner", getWinner(match));
-            metadata.put("league", match.getLeague());
-
-            var addMethod = matchHistoryCollection.getClass().getMethod("add",
-                    List.class, List.class, List.class, List.class);
-            addMethod.invoke(matchHistoryCollection,
-                    null, List.of(metadata), List.of(document), List.of(id));
-
+            vectorStore.upsert(MATCH_HISTORY, List.of(toMatchHistoryDocument(match)));
         } catch (Exception e) {
             System.out.println("⚠️ Failed to store match history: " + e.getMessage());
         }
     }
 
     /**
-     * MARK 9 - ANALYTICS: Generate and store prediction analytics
+     * Store many finished matches with a single upsert call
      */
-    public void generateAnalytics() {
-        if (!isConnected || analyticsCollection == null) return;
+    public void storeMatchHistories(List<Match> matches) {
+        if (!isConnected || matches.isEmpty()) return;
 
         try {
-            List<AiPrediction> allPredictions = aiPredictionRepository.findAll();
-
-            // Calculate various analytics
-            Map<String, Integer> teamPredictionCount = new HashMap<>();
-            Map<String, Integer> leaguePredictionCount = new HashMap<>();
-            double totalConfidence = 0;
-            int correctPredictions = 0;
-            int totalEvaluated = 0;
-
-            for (AiPrediction pred : allPredictions) {
-                String homeTeam = pred.getMatch().getHomeTeam().getName();
-                String awayTeam = pred.getMatch().getAwayTeam().getName();
-                String league = pred.getMatch().getLeague();
-
-                teamPredictionCount.merge(homeTeam, 1, Integer::sum);
-                teamPredictionCount.merge(awayTeam, 1, Integer::sum);
-                leaguePredictionCount.merge(league, 1, Integer::sum);
-
-                if (pred.getConfidenceScore() != null) {
-                    totalConfidence += pred.getConfidenceScore().doubleValue();
-                }
-
-                if (pred.getIsCorrect() != null) {
-                    totalEvaluated++;
-                    if (pred.getIsCorrect()) correctPredictions++;
-                }
-            }
+            vectorStore.upsert(MATCH_HISTORY, matches.stream().map(this::toMatchHistoryDocument).toList());
+        } catch (Exception e) {
+            System.out.println("⚠️ Failed to store match history batch: " + e.getMessage());
+        }
+    }
 
-            // Create analytics document
-            String analyticsDoc = String.format("""
-                Prediction System Analytics Summary:
-                Total predictions made: %d
-                Average confidence score: %.2f
-                Evaluated predictions: %d
-                Correct predictions: %d
-                Accuracy rate: %.1f%%
-                Most predicted teams: %s
-                Most predicted leagues: %s
-                System performance: %s
-                """,
-                    allPredictions.size(),
-                    allPredictions.isEmpty() ? 0 : totalConfidence / allPredictions.size(),
-                    totalEvaluated,
-                    correctPredictions,
-                    totalEvaluated > 0 ? (correctPredictions * 100.0 / totalEvaluated) : 0,
-                    getTopEntries(teamPredictionCount, 3),
-                    getTopEntries(leaguePredictionCount, 3),
-                    totalEvaluated > 0 ?
-                            (correctPredictions * 100.0 / totalEvaluated > 60 ? "Good" : "Needs improvement") :
-                            "Not enough data"
-            );
-
-            Map<String, String> metadata = new HashMap<>();
-            metadata.put("total_predictions", String.valueOf(allPredictions.size()));
-            metadata.put("accuracy", String.valueOf(totalEvaluated > 0 ? (correctPredictions * 100.0 / totalEvaluated) : 0));
-            metadata.put("timestamp", new java.util.Date().toString());
-
-            var addMethod = analyticsCollection.getClass().getMethod("add",
-                    List.class, List.class, List.class, List.class);
-            addMethod.invoke(analyticsCollection,
-                    null, List.of(metadata), List.of(analyticsDoc), List.of("analytics_latest"));
-
-            System.out.println("✅ Analytics generated and stored in ChromaDB");
+    /**
+     * Remove a deleted match and its predictions from the vector store
+     */
+    public void removeMatch(Integer matchId, List<Integer> predictionIds) {
+        if (!isConnected) return;
 
+        try {
+            vectorStore.delete(MATCH_HISTORY, List.of("match_" + matchId));
+            vectorStore.delete(PREDICTIONS, predictionIds.stream().map(id -> "prediction_" + id).toList());
         } catch (Exception e) {
-            System.out.println("⚠️ Analytics generation failed: " + e.getMessage());
+            System.out.println("⚠️ Failed to remove match " + matchId + " from ChromaDB: " + e.getMessage());
+        }
+    }
+
+    private VectorDocument toMatchHistoryDocument(Match match) {
+        String id = "match_" + match.getId();
+
+        String document = String.format("""
+            Historical match: %s vs %s in %s.
+            Final result: %s %d - %d %s.
+            Venue: %s, Date: %s.
+            Match outcome: %s.
+            Goal difference: %d.
+            %s performance: scored %d goals.
+            %s performance: scored %d goals.
+            This was a %s league match.
+            """,
+                match.getHomeTeam().getName(),
+                match.getAwayTeam().getName(),
+                match.getLeague(),
+                match.getHomeTeam().getName(),
+                match.getHomeScore(),
+                match.getAwayScore(),
+                match.getAwayTeam().getName(),
+                match.getVenue() != null ? match.getVenue() : "Unknown",
+                match.getMatchDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
+                determineOutcome(match),
+                Math.abs(match.getHomeScore() - match.getAwayScore()),
+                match.getHomeTeam().getName(),
+                match.getHomeScore(),
+                match.getAwayTeam().getName(),
+                match.getAwayScore(),
+                match.getLeague()
+        );
+
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("match_id", match.getId().toString());
+        metadata.put("home_team", match.getHomeTeam().getName());
+        metadata.put("away_team", match.getAwayTeam().getName());
+        metadata.put("result", String.format("%d-%d", match.getHomeScore(), match.getAwayScore()));
+        metadata.put("winner", getWinner(match));
+        metadata.put("league", match.getLeague());
+
+        return new VectorDocument(id, document, metadata);
+    }
+
+    /**
+     * MARK 9 - ANALYTICS: Store the prediction analytics document (built by PredictionAnalyticsService).
+     * Returns false if it could not be written.
+     */
+    public boolean storeAnalytics(String document, Map<String, String> metadata) {
+        if (!isConnected) return false;
+
+        try {
+            vectorStore.upsert(ANALYTICS, List.of(new VectorDocument("analytics_latest", document, metadata)));
+            System.out.println("✅ Analytics stored in ChromaDB");
+            return true;
+        } catch (Exception e) {
+            System.out.println("⚠️ Analytics storage failed: " + e.getMessage());
+            return false;
         }
     }
 
@@ -349,21 +237,14 @@ public class ChromaDbService {
      * MARK 9 - CONTEXT REUSE: Search for similar predictions
      */
     public List<String> searchSimilarPredictions(String query, int limit) {
-        if (!isConnected || predictionCollection == null) {
+        if (!isConnected) {
             return Collections.singletonList("ChromaDB not connected");
         }
 
         try {
-            var queryMethod = predictionCollection.getClass().getMethod("query",
-                    List.class, Integer.class, Map.class, Map.class, List.class);
-            Object results = queryMethod.invoke(predictionCollection,
-                    List.of(query), limit, null, null, null);
+            List<List<String>> docs = vectorStore.query(PREDICTIONS, List.of(query), limit);
 
-            var getDocsMethod = results.getClass().getMethod("getDocuments");
-            @SuppressWarnings("unchecked")
-            List<List<String>> docs = (List<List<String>>) getDocsMethod.invoke(results);
-
-            if (docs != null && !docs.isEmpty()) {
+            if (!docs.isEmpty()) {
                 return docs.get(0);
             }
         } catch (Exception e) {
@@ -373,36 +254,42 @@ public class ChromaDbService {
         return Collections.emptyList();
     }
 
+    /**
+     * Batch form of searchSimilarPredictions: all query texts go to ChromaDB in one request.
+     * Results are returned in the order of the queries.
+     */
+    public List<List<String>> searchSimilarPredictions(List<String> queries, int limit) {
+        if (!isConnected || queries.isEmpty()) {
+            return Collections.nCopies(queries.size(), Collections.emptyList());
+        }
+
+        try {
+            List<List<String>> docs = vectorStore.query(PREDICTIONS, queries, limit);
+
+            if (docs.size() == queries.size()) {
+                return docs;
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Batch search failed: " + e.getMessage());
+        }
+
+        return Collections.nCopies(queries.size(), Collections.emptyList());
+    }
+
     /**
      * MARK 9 - CONTEXT REUSE: Get relevant historical context
      */
     public String getHistoricalContext(String homeTeam, String awayTeam) {
-        if (!isConnected || matchHistoryCollection == null) {
+        if (!isConnected) {
             return "No historical context available.";
         }
 
         try {
-            String query = String.format(
-                    "matches between %s and %s, their results and performance patterns",
-                    homeTeam, awayTeam
-            );
-
-            var queryMethod = matchHistoryCollection.getClass().getMethod("query",
-                    List.class, Integer.class, Map.class, Map.class, List.class);
-            Object results = queryMethod.invoke(matchHistoryCollection,
-                    List.of(query), 5, null, null, null);
-
-            var getDocsMethod = results.getClass().getMethod("getDocuments");
-            @SuppressWarnings("unchecked")
-            List<List<String>> docs = (List<List<String>>) getDocsMethod.invoke(results);
-
-            if (docs != null && !docs.isEmpty() && !docs.get(0).isEmpty()) {
-                StringBuilder context = new StringBuilder();
-                context.append("=== HISTORICAL CONTEXT FROM CHROMADB ===\n\n");
-                for (String doc : docs.get(0)) {
-                    context.append(doc).append("\n\n");
-                }
-                return context.toString();
+            List<List<String>> docs = vectorStore.query(MATCH_HISTORY,
+                    List.of(historicalContextQuery(homeTeam, awayTeam)), 5);
+
+            if (!docs.isEmpty()) {
+                return formatHistoricalContext(docs.get(0));
             }
         } catch (Exception e) {
             System.out.println("⚠️ Context retrieval failed: " + e.getMessage());
@@ -411,6 +298,52 @@ public class ChromaDbService {
         return "No relevant historical context found.";
     }
 
+    /**
+     * Batch form of getHistoricalContext for several fixtures, one ChromaDB request.
+     * Results are returned in the order of the matches.
+     */
+    public List<String> getHistoricalContexts(List<Match> matches) {
+        if (!isConnected || matches.isEmpty()) {
+            return Collections.nCopies(matches.size(), "No historical context available.");
+        }
+
+        try {
+            List<String> queries = matches.stream()
+                    .map(m -> historicalContextQuery(m.getHomeTeam().getName(), m.getAwayTeam().getName()))
+                    .toList();
+
+            List<List<String>> docs = vectorStore.query(MATCH_HISTORY, queries, 5);
+
+            if (docs.size() == matches.size()) {
+                return docs.stream().map(this::formatHistoricalContext).toList();
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Batch context retrieval failed: " + e.getMessage());
+        }
+
+        return Collections.nCopies(matches.size(), "No relevant historical context found.");
+    }
+
+    private String historicalContextQuery(String homeTeam, String awayTeam) {
+        return String.format(
+                "matches between %s and %s, their results and performance patterns",
+                homeTeam, awayTeam
+        );
+    }
+
+    private String formatHistoricalContext(List<String> docs) {
+        if (docs == null || docs.isEmpty()) {
+            return "No relevant historical context found.";
+        }
+
+        StringBuilder context = new StringBuilder();
+        context.append("=== HISTORICAL CONTEXT FROM CHROMADB ===\n\n");
+        for (String doc : docs) {
+            context.append(doc).append("\n\n");
+        }
+        return context.toString();
+    }
+
     /**
      * MARK 9 - ANALYTICS: Get prediction statistics
      */
@@ -429,19 +362,9 @@ public class ChromaDbService {
             analytics.put("matchHistoryCount", getMatchHistoryCount());
 
             // Get latest analytics document
-            if (analyticsCollection != null) {
-                var queryMethod = analyticsCollection.getClass().getMethod("query",
-                        List.class, Integer.class, Map.class, Map.class, List.class);
-                Object results = queryMethod.invoke(analyticsCollection,
-                        List.of("latest analytics summary"), 1, null, null, null);
-
-                var getDocsMethod = results.getClass().getMethod("getDocuments");
-                @SuppressWarnings("unchecked")
-                List<List<String>> docs = (List<List<String>>) getDocsMethod.invoke(results);
-
-                if (docs != null && !docs.isEmpty() && !docs.get(0).isEmpty()) {
-                    analytics.put("summary", docs.get(0).get(0));
-                }
+            List<List<String>> docs = vectorStore.query(ANALYTICS, List.of("latest analytics summary"), 1);
+            if (!docs.isEmpty() && !docs.get(0).isEmpty()) {
+                analytics.put("summary", docs.get(0).get(0));
             }
         } catch (Exception e) {
             analytics.put("error", e.getMessage());
@@ -467,32 +390,21 @@ public class ChromaDbService {
         return "Draw";
     }
 
-    private String getTopEntries(Map<String, Integer> map, int limit) {
-        return map.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .map(e -> e.getKey() + " (" + e.getValue() + ")")
-                .reduce((a, b) -> a + ", " + b)
-                .orElse("None");
-    }
-
     public boolean isConnected() { return isConnected; }
 
     public int getPredictionCount() {
-        if (!isConnected || predictionCollection == null) return 0;
+        if (!isConnected) return 0;
         try {
-            var countMethod = predictionCollection.getClass().getMethod("count");
-            return (Integer) countMethod.invoke(predictionCollection);
+            return vectorStore.count(PREDICTIONS);
         } catch (Exception e) {
             return 0;
         }
     }
 
     public int getMatchHistoryCount() {
-        if (!isConnected || matchHistoryCollection == null) return 0;
+        if (!isConnected) return 0;
         try {
-            var countMethod = matchHistoryCollection.getClass().getMethod("count");
-            return (Integer) countMethod.invoke(matchHistoryCollection);
+            return vectorStore.count(MATCH_HISTORY);
         } catch (Exception e) {
             return 0;
         }
@@ -0,0 +1,118 @@
+package com.example.matchpredictor.service;
+
+import tech.amikos.chromadb.Client;
+import tech.amikos.chromadb.Collection;
+import tech.amikos.chromadb.embeddings.DefaultEmbeddingFunction;
+import tech.amikos.chromadb.embeddings.EmbeddingFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * VectorStore backed by a ChromaDB server, using the typed chromadb-java-client API.
+ * The client, embedding function and collection handles are created once and reused.
+ */
+public class ChromaVectorStore implements VectorStore {
+
+    private final String chromaUrl;
+    private Client client;
+    private EmbeddingFunction embeddingFunction;
+    private final Map<String, Collection> collections = new ConcurrentHashMap<>();
+    private volatile boolean available = false;
+
+    public ChromaVectorStore(String chromaUrl) {
+        this.chromaUrl = chromaUrl;
+    }
+
+    public void connect() {
+        try {
+            client = new Client(chromaUrl);
+            client.heartbeat();
+            embeddingFunction = new DefaultEmbeddingFunction();
+            available = true;
+            System.out.println("✅ ChromaDB reachable at " + chromaUrl);
+        } catch (Exception e) {
+            available = false;
+            System.out.println("❌ ChromaDB connection failed (" + chromaUrl + "): " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public String getName() {
+        return "chroma";
+    }
+
+    @Override
+    public void upsert(String collection, List<VectorDocument> documents) {
+        if (documents.isEmpty()) return;
+
+        List<Map<String, String>> metadatas = new ArrayList<>(documents.size());
+        List<String> texts = new ArrayList<>(documents.size());
+        List<String> ids = new ArrayList<>(documents.size());
+        for (VectorDocument document : documents) {
+            metadatas.add(document.metadata());
+            texts.add(document.text());
+            ids.add(document.id());
+        }
+
+        try {
+            collection(collection).upsert(null, metadatas, texts, ids);
+        } catch (Exception e) {
+            throw new RuntimeException("ChromaDB upsert into " + collection + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<List<String>> query(String collection, List<String> queryTexts, int limit) {
+        if (queryTexts.isEmpty()) return List.of();
+
+        try {
+            Collection.QueryResponse response = collection(collection).query(queryTexts, limit, null, null, null);
+            List<List<String>> documents = response.getDocuments();
+            return documents != null ? documents : List.of();
+        } catch (Exception e) {
+            throw new RuntimeException("ChromaDB query on " + collection + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int count(String collection) {
+        try {
+            return collection(collection).count();
+        } catch (Exception e) {
+            throw new RuntimeException("ChromaDB count on " + collection + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String collection, List<String> ids) {
+        if (ids.isEmpty()) return;
+
+        try {
+            collection(collection).deleteWithIds(ids);
+        } catch (Exception e) {
+            throw new RuntimeException("ChromaDB delete from " + collection + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Get-or-create once per name; later calls reuse the cached handle
+    private Collection collection(String name) {
+        if (!available) {
+            throw new IllegalStateException("ChromaDB not connected");
+        }
+        return collections.computeIfAbsent(name, n -> {
+            try {
+                return client.createCollection(n, null, true, embeddingFunction);
+            } catch (Exception e) {
+                throw new RuntimeException("Cannot open ChromaDB collection " + n + ": " + e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -1,24 +1,21 @@
 package com.example.matchpredictor.service;
 
 import com. example.matchpredictor.dto.ContextualPredictionRequest;
+import com.example.matchpredictor.dto.CursorPage;
 import com.example. matchpredictor. entity.AiPrediction;
 import com.example.matchpredictor.entity.ConversationContext;
 import com.example.matchpredictor.entity.Match;
 import com.example.matchpredictor.repository.AiPredictionRepository;
 import com.example.matchpredictor.repository. ConversationContextRepository;
-import org.springframework.ai.chat.ChatResponse;
-import org. springframework.ai.chat.prompt. Prompt;
-import org.springframework.ai.ollama.OllamaChatClient;
-import org. springframework.ai.ollama.api.OllamaApi;
-import org. springframework.ai.ollama.api.OllamaOptions;
 import org. springframework.beans.factory.annotation. Autowired;
 import org.springframework. data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java. util.List;
 import java.util. UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class ContextualAiService {
@@ -32,6 +29,15 @@ public class ContextualAiService {
     @Autowired
     private MatchService matchService;
 
+    @Autowired
+    private OllamaGateway ollamaGateway;
+
+    @Autowired
+    private PredictionAnalyticsService predictionAnalyticsService;
+
+    @Autowired
+    private RagPipelineMetrics ragPipelineMetrics;
+
     //Generate a prediction with context awareness(mem+param)
     public AiPrediction generateContextualPrediction(ContextualPredictionRequest request) {
         Match match = matchService. getMatchById(request.getMatchId())
@@ -53,32 +59,74 @@ public class ContextualAiService {
         );
         userContext.setMatch(match);
         try {
-            // Create client with explicit model
-            OllamaApi directApi = new OllamaApi("http://localhost:11434");
-            OllamaChatClient directClient = new OllamaChatClient(directApi);
+            String aiResponse = ollamaGateway.generate(prompt);
+            return saveExchange(match, request, userContext, aiResponse, PredictionResponseParser.parse(aiResponse));
 
-            ChatResponse response = directClient.call(
-                    new Prompt(prompt, OllamaOptions.create().withModel("llama3.2"))
-            );
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating contextual prediction:  " + e.getMessage(), e);
+        }
+    }
+
+    //Streaming variant: forwards tokens as they arrive, saves memory + prediction when the stream ends
+    public void streamContextualPrediction(ContextualPredictionRequest request, PredictionStreamListener listener) {
+        try {
+            Match match = matchService.getMatchById(request.getMatchId())
+                    .orElseThrow(() -> new RuntimeException("Match not found with id: " + request.getMatchId()));
 
-            String aiResponse = response. getResult().getOutput().getContent();
+            String sessionId = request.getSessionId() != null ?
+                    request.getSessionId() : UUID.randomUUID().toString();
 
-            // Save AI response to context (for memory)
-            userContext.setAiResponse(aiResponse);
-            contextRepository.save(userContext);
+            String prompt = buildContextualPrompt(match, request, sessionId);
 
-            // Parse and save prediction
-            AiPrediction prediction = parseAiResponse(match, aiResponse);
-            prediction.setModelVersion("llama3.2");
-            prediction.setParameters(buildParametersJson(request));
+            ConversationContext userContext = new ConversationContext(
+                    sessionId,
+                    "Predict match:  " + match.getHomeTeam().getName() + " vs " + match.getAwayTeam().getName(),
+                    request.getTone(),
+                    request.getRole()
+            );
+            userContext.setMatch(match);
+
+            StreamingPredictionParser parser = new StreamingPredictionParser(listener);
+            AtomicBoolean clientGone = new AtomicBoolean();
+            ollamaGateway.stream(prompt)
+                    .takeUntilOther(listener.cancellation().doOnSuccess(done -> clientGone.set(true)))
+                    .doOnNext(token -> {
+                        listener.onToken(token);
+                        parser.accept(token);
+                    })
+                    .blockLast();
+            if (clientGone.get()) {
+                System.out.println("⚠️ Contextual stream for match " + match.getId() + " cancelled, client disconnected");
+                return;
+            }
 
-            return predictionRepository.save(prediction);
+            String aiResponse = parser.finish();
+            listener.onComplete(saveExchange(match, request, userContext, aiResponse, parser.getResult()));
 
         } catch (Exception e) {
-            throw new RuntimeException("Error generating contextual prediction:  " + e.getMessage(), e);
+            listener.onError(e);
         }
     }
 
+    private AiPrediction saveExchange(Match match, ContextualPredictionRequest request, ConversationContext userContext,
+                                      String aiResponse, PredictionResponseParser.ParsedPrediction parsed) {
+        // Save AI response to context (for memory)
+        userContext.setAiResponse(aiResponse);
+        contextRepository.save(userContext);
+
+        // Save the parsed prediction
+        ragPipelineMetrics.recordParse("contextual", parsed.outcome());
+        AiPrediction prediction = new AiPrediction();
+        prediction.setMatch(match);
+        parsed.applyTo(prediction, aiResponse);
+        prediction.setModelVersion(ollamaGateway.getModel());
+        prediction.setParameters(buildParametersJson(request));
+
+        AiPrediction saved = predictionRepository.save(prediction);
+        predictionAnalyticsService.recordPrediction(saved);
+        return saved;
+    }
+
     //Build a prompt that includes conversation history and user preferences
     private String buildContextualPrompt(Match match, ContextualPredictionRequest request, String sessionId) {
         StringBuilder promptBuilder = new StringBuilder();
@@ -183,53 +231,24 @@ public class ContextualAiService {
                 request.getSessionId() != null ? request.getSessionId() : "");
     }
 
-    private AiPrediction parseAiResponse(Match match, String aiResponse) {
-        AiPrediction prediction = new AiPrediction();
-        prediction.setMatch(match);
-
-        try {
-            String[] lines = aiResponse.split("\n");
-            BigDecimal homeWin = new BigDecimal("33.33");
-            BigDecimal draw = new BigDecimal("33.34");
-            BigDecimal awayWin = new BigDecimal("33.33");
-            String reasoning = aiResponse;
-
-            for (String line : lines) {
-                line = line.trim();
-                if (line.toUpperCase().startsWith("HOME_WIN: ")) {
-                    String value = line.substring(9).trim().replace("%", "").trim();
-                    homeWin = new BigDecimal(value);
-                } else if (line.toUpperCase().startsWith("DRAW:")) {
-                    String value = line.substring(5).trim().replace("%", "").trim();
-                    draw = new BigDecimal(value);
-                } else if (line. toUpperCase().startsWith("AWAY_WIN:")) {
-                    String value = line.substring(9).trim().replace("%", "").trim();
-                    awayWin = new BigDecimal(value);
-                } else if (line.toUpperCase().startsWith("REASONING:")) {
-                    reasoning = line.substring(10).trim();
-                }
-            }
-
-            prediction.setHomeWinProbability(homeWin);
-            prediction.setDrawProbability(draw);
-            prediction.setAwayWinProbability(awayWin);
-            prediction.setReasoning(reasoning);
-            prediction.setConfidenceScore(new BigDecimal("0.75"));
-
-        } catch (Exception e) {
-            prediction.setHomeWinProbability(new BigDecimal("33.33"));
-            prediction.setDrawProbability(new BigDecimal("33.34"));
-            prediction.setAwayWinProbability(new BigDecimal("33.33"));
-            prediction.setReasoning("AI analysis:  " + aiResponse);
-            prediction.setConfidenceScore(new BigDecimal("0.50"));
-        }
-
-        return prediction;
-    }
-
     //Get conversation history for a session
     public List<ConversationContext> getConversationHistory(String sessionId) {
         return contextRepository.findBySessionIdOrderByCreatedAtDesc(sessionId);
     }
 
+    //One page of a session's history, newest first; cursor is the nextCursor of the previous page (null for the first)
+    public CursorPage<ConversationContext> getConversationHistoryPage(String sessionId, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        LocalDateTime beforeDate = LocalDateTime.of(9999, 12, 31, 23, 59);
+        Integer beforeId = Integer.MAX_VALUE;
+        if (cursor != null) {
+            String[] keys = CursorPage.decodeCursor(cursor, 2);
+            beforeDate = LocalDateTime.parse(keys[0]);
+            beforeId = Integer.valueOf(keys[1]);
+        }
+        List<ConversationContext> rows = contextRepository.findHistoryPage(
+                sessionId, beforeDate, beforeId, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, c -> CursorPage.encodeCursor(c.getCreatedAt(), c.getId()));
+    }
+
 }
@@ -0,0 +1,355 @@
+package com.example.matchpredictor.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-JVM VectorStore: lets the RAG pipeline run on a single box without ChromaDB.
+ * Texts are embedded with HashingEmbedder and searched with an exact (flat) cosine scan
+ * over one contiguous float array per collection. Each collection is snapshotted to
+ * "<collection>.vec" through a memory-mapped file when it has changed.
+ */
+public class EmbeddedVectorStore implements VectorStore {
+
+    private static final int MAGIC = 0x56454331; // "VEC1"
+    private static final String FILE_SUFFIX = ".vec";
+
+    private final Path directory;
+    private final HashingEmbedder embedder;
+    private final Map<String, Index> collections = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public EmbeddedVectorStore(Path directory, int dimensions, long flushIntervalMs) {
+        this.directory = directory;
+        this.embedder = new HashingEmbedder(dimensions);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vector-store-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Load every snapshot found in the directory
+    public void open() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    name = name.substring(0, name.length() - FILE_SUFFIX.length());
+                    Index index = Index.read(name, file, embedder.getDimensions());
+                    if (index != null) {
+                        collections.put(name, index);
+                    }
+                }
+            }
+            System.out.println("✅ Embedded vector store opened at " + directory.toAbsolutePath()
+                    + " (" + collections.size() + " collections)");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open embedded vector store at " + directory, e);
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "embedded";
+    }
+
+    @Override
+    public void upsert(String collection, List<VectorDocument> documents) {
+        Index index = collection(collection);
+        for (VectorDocument document : documents) {
+            index.put(document.id(), document.text(), document.metadata(), embedder.embed(document.text()));
+        }
+    }
+
+    @Override
+    public List<List<String>> query(String collection, List<String> queryTexts, int limit) {
+        Index index = collection(collection);
+        List<List<String>> results = new ArrayList<>(queryTexts.size());
+        for (String queryText : queryTexts) {
+            results.add(index.search(embedder.embed(queryText), limit));
+        }
+        return results;
+    }
+
+    @Override
+    public int count(String collection) {
+        return collection(collection).size();
+    }
+
+    @Override
+    public void delete(String collection, List<String> ids) {
+        Index index = collection(collection);
+        for (String id : ids) {
+            index.remove(id);
+        }
+    }
+
+    // Write every collection changed since the last flush
+    public void flush() {
+        for (Index index : collections.values()) {
+            try {
+                index.writeIfDirty(directory.resolve(index.name + FILE_SUFFIX));
+            } catch (Exception e) {
+                System.out.println("⚠️ Embedded vector store flush failed for " + index.name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public void close() {
+        flusher.shutdown();
+        flush();
+    }
+
+    private Index collection(String name) {
+        return collections.computeIfAbsent(name, n -> new Index(n, embedder.getDimensions()));
+    }
+
+    /**
+     * One collection. Vectors live in a single float[] (row = slot * dimensions) so a
+     * search is a linear scan over contiguous memory; deletes move the last row into the gap.
+     */
+    private static final class Index {
+
+        private final String name;
+        private final int dimensions;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Map<String, Integer> slots = new HashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<Map<String, String>> metadatas = new ArrayList<>();
+        private float[] vectors;
+        private volatile boolean dirty;
+
+        Index(String name, int dimensions) {
+            this.name = name;
+            this.dimensions = dimensions;
+            this.vectors = new float[dimensions * 16];
+        }
+
+        void put(String id, String text, Map<String, String> metadata, float[] vector) {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slots.get(id);
+                if (slot == null) {
+                    slot = ids.size();
+                    ids.add(id);
+                    texts.add(text);
+                    metadatas.add(metadata);
+                    slots.put(id, slot);
+                    if ((slot + 1) * dimensions > vectors.length) {
+                        vectors = Arrays.copyOf(vectors, vectors.length * 2);
+                    }
+                } else {
+                    texts.set(slot, text);
+                    metadatas.set(slot, metadata);
+                }
+                System.arraycopy(vector, 0, vectors, slot * dimensions, dimensions);
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String id) {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slots.remove(id);
+                if (slot == null) return;
+
+                int last = ids.size() - 1;
+                if (slot != last) {
+                    ids.set(slot, ids.get(last));
+                    texts.set(slot, texts.get(last));
+                    metadatas.set(slot, metadatas.get(last));
+                    System.arraycopy(vectors, last * dimensions, vectors, slot * dimensions, dimensions);
+                    slots.put(ids.get(slot), slot);
+                }
+                ids.remove(last);
+                texts.remove(last);
+                metadatas.remove(last);
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return ids.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Exact top-k by dot product (vectors are normalised, so this is cosine similarity)
+        List<String> search(float[] query, int limit) {
+            lock.readLock().lock();
+            try {
+                int k = Math.min(limit, ids.size());
+                if (k <= 0) return List.of();
+
+                int[] topSlots = new int[k];
+                float[] topScores = new float[k];
+                Arrays.fill(topScores, Float.NEGATIVE_INFINITY);
+
+                for (int slot = 0; slot < ids.size(); slot++) {
+                    int offset = slot * dimensions;
+                    float score = 0;
+                    for (int d = 0; d < dimensions; d++) {
+                        score += vectors[offset + d] * query[d];
+                    }
+                    if (score <= topScores[k - 1]) continue;
+
+                    // Insert into the sorted top-k arrays
+                    int pos = k - 1;
+                    while (pos > 0 && topScores[pos - 1] < score) {
+                        topScores[pos] = topScores[pos - 1];
+                        topSlots[pos] = topSlots[pos - 1];
+                        pos--;
+                    }
+                    topScores[pos] = score;
+                    topSlots[pos] = slot;
+                }
+
+                List<String> result = new ArrayList<>(k);
+                for (int i = 0; i < k; i++) {
+                    result.add(texts.get(topSlots[i]));
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /*
+         * File layout: magic, dimensions, count, count * dimensions floats,
+         * then per row: id, text, metadata size, key/value pairs (int length + UTF-8 bytes each).
+         * Written to a temp file through a mapped buffer and moved over the old snapshot.
+         */
+        synchronized void writeIfDirty(Path file) throws IOException {
+            float[] vectorSnapshot;
+            byte[] records;
+            int count;
+
+            lock.readLock().lock();
+            try {
+                if (!dirty) return;
+                count = ids.size();
+                vectorSnapshot = Arrays.copyOf(vectors, count * dimensions);
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                for (int slot = 0; slot < count; slot++) {
+                    writeString(out, ids.get(slot));
+                    writeString(out, texts.get(slot));
+                    Map<String, String> metadata = metadatas.get(slot) != null ? metadatas.get(slot) : Map.of();
+                    out.writeInt(metadata.size());
+                    for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                        writeString(out, entry.getKey());
+                        writeString(out, entry.getValue());
+                    }
+                }
+                records = bytes.toByteArray();
+                dirty = false;
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            long size = 12L + (long) vectorSnapshot.length * Float.BYTES + records.length;
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                    buffer.putInt(MAGIC).putInt(dimensions).putInt(count);
+                    buffer.asFloatBuffer().put(vectorSnapshot);
+                    buffer.position(12 + vectorSnapshot.length * Float.BYTES);
+                    buffer.put(records);
+                    buffer.force();
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                dirty = true; // retried on the next flush
+                throw e;
+            }
+        }
+
+        // Null if the file is unreadable or was built with other dimensions (the next sync rebuilds it)
+        static Index read(String name, Path file, int dimensions) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt() != MAGIC || buffer.getInt() != dimensions) {
+                    System.out.println("⚠️ Ignoring vector snapshot " + file + " (format or dimensions changed)");
+                    return null;
+                }
+
+                int count = buffer.getInt();
+                Index index = new Index(name, dimensions);
+                index.vectors = new float[Math.max(count, 16) * dimensions];
+                buffer.asFloatBuffer().get(index.vectors, 0, count * dimensions);
+                buffer.position(12 + count * dimensions * Float.BYTES);
+
+                for (int slot = 0; slot < count; slot++) {
+                    String id = readString(buffer);
+                    String text = readString(buffer);
+                    int pairs = buffer.getInt();
+                    Map<String, String> metadata = new LinkedHashMap<>();
+                    for (int p = 0; p < pairs; p++) {
+                        metadata.put(readString(buffer), readString(buffer));
+                    }
+                    index.ids.add(id);
+                    index.texts.add(text);
+                    index.metadatas.add(metadata);
+                    index.slots.put(id, slot);
+                }
+                return index;
+            } catch (RuntimeException e) {
+                System.out.println("⚠️ Ignoring unreadable vector snapshot " + file + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static String readString(MappedByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.Match;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of "next upcoming fixture between two teams", keyed by the unordered
+ * team pair. "No fixture" is cached too, so repeated chat questions about an unscheduled
+ * pair don't hit the database. Entries expire after the TTL or once the cached fixture
+ * has kicked off, and are dropped when a match between the pair is created, edited or deleted.
+ */
+@Component
+public class FixtureCache {
+
+    @Value("${prediction.fixtures.cache.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${prediction.fixtures.cache.max-size:1000}")
+    private int maxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    // Bumped on every invalidation so a load that raced it is not cached
+    private long generation;
+
+    // Access-ordered so the least recently used pair is evicted first
+    private final LinkedHashMap<String, CachedFixture> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedFixture> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    @PostConstruct
+    public void registerMetrics() {
+        hitCounter = Counter.builder("fixture.cache").tag("result", "hit").register(meterRegistry);
+        missCounter = Counter.builder("fixture.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    // Cached next fixture for the pair, or the loader's answer (which is then cached)
+    public Optional<Match> getOrLoad(Integer teamA, Integer teamB, Supplier<Optional<Match>> loader) {
+        String key = key(teamA, teamB);
+        long loadGeneration;
+
+        synchronized (this) {
+            CachedFixture cached = entries.get(key);
+            if (cached != null && cached.isValid(ttlMinutes)) {
+                hitCounter.increment();
+                return Optional.ofNullable(cached.match());
+            }
+            entries.remove(key);
+            loadGeneration = generation;
+        }
+
+        missCounter.increment();
+        Optional<Match> loaded = loader.get();
+
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, new CachedFixture(loaded.orElse(null), System.nanoTime()));
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidatePair(Integer teamA, Integer teamB) {
+        generation++;
+        entries.remove(key(teamA, teamB));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private String key(Integer teamA, Integer teamB) {
+        return Math.min(teamA, teamB) + ":" + Math.max(teamA, teamB);
+    }
+
+    private record CachedFixture(Match match, long cachedAtNanos) {
+        boolean isValid(long ttlMinutes) {
+            if (System.nanoTime() - cachedAtNanos > Duration.ofMinutes(ttlMinutes).toNanos()) {
+                return false;
+            }
+            // Once it has started it is no longer the next upcoming fixture
+            return match == null || match.getMatchDate().isAfter(LocalDateTime.now());
+        }
+    }
+}
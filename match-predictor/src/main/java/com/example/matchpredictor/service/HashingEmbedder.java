@@ -0,0 +1,71 @@
+package com.example.matchpredictor.service;
+
+import java.util.Locale;
+
+/**
+ * Dependency-free text embedding for the embedded vector store.
+ * Words and character trigrams are hashed into a fixed number of dimensions
+ * (feature hashing) and the vector is L2-normalised, so cosine similarity is a dot product.
+ * Good enough to match team names, leagues and outcome wording without a model download.
+ */
+public class HashingEmbedder {
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private final int dimensions;
+
+    public HashingEmbedder(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        if (text == null) return vector;
+
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+
+            add(vector, token, WORD_WEIGHT);
+
+            // Trigrams of "#token#" so "barcelona"/"barca" or "win"/"wins" still overlap
+            String padded = "#" + token + "#";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                add(vector, padded.substring(i, i + 3), TRIGRAM_WEIGHT);
+            }
+        }
+
+        normalize(vector);
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        int hash = mix(feature.hashCode());
+        int index = Math.floorMod(hash, dimensions);
+        // A second hash bit picks the sign so collisions cancel out instead of piling up
+        vector[index] += (hash & 0x40000000) == 0 ? weight : -weight;
+    }
+
+    private static void normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) norm += v * v;
+        if (norm == 0) return;
+
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) vector[i] *= scale;
+    }
+
+    // murmur3 finalizer - spreads String.hashCode over all bits
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
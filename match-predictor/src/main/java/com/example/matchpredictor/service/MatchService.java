@@ -1,11 +1,15 @@
 package com.example.matchpredictor.service;
 
+import com.example.matchpredictor.dto.CursorPage;
 import com.example.matchpredictor.entity.Match;
 import com.example.matchpredictor.entity.Team;
+import com.example.matchpredictor.repository.AiPredictionRepository;
 import com.example.matchpredictor.repository.MatchRepository;
 import com.example.matchpredictor.repository.TeamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,6 +22,20 @@ public class MatchService {
     private MatchRepository matchRepository;
     @Autowired
     private TeamService teamService;
+    @Autowired
+    private PredictionCache predictionCache;
+    @Autowired
+    private AiPredictionRepository aiPredictionRepository;
+    @Autowired
+    private ChromaDbService chromaDbService;
+    @Autowired
+    private MatchStatsService matchStatsService;
+    @Autowired
+    private PredictionAnalyticsService predictionAnalyticsService;
+    @Autowired
+    private PredictionEvaluationService predictionEvaluationService;
+    @Autowired
+    private FixtureCache fixtureCache;
 
     //Get all matches
     public List<Match> getAllMatches(){
@@ -34,6 +52,28 @@ public class MatchService {
         return matchRepository.findUpcomingMatches(LocalDateTime.now());
     }
 
+    // One page of upcoming matches by kick-off; cursor is the nextCursor of the previous page (null for the first)
+    public CursorPage<Match> getUpcomingMatchesPage(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime afterDate = now;
+        Integer afterId = 0;
+        if (cursor != null) {
+            String[] keys = CursorPage.decodeCursor(cursor, 2);
+            afterDate = LocalDateTime.parse(keys[0]);
+            afterId = Integer.valueOf(keys[1]);
+        }
+        List<Match> rows = matchRepository.findUpcomingPage(now, afterDate, afterId, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, m -> CursorPage.encodeCursor(m.getMatchDate(), m.getId()));
+    }
+
+    // Next upcoming match between two teams, either of them at home
+    public Optional<Match> findNextFixture(Team team1, Team team2) {
+        return fixtureCache.getOrLoad(team1.getId(), team2.getId(), () ->
+                matchRepository.findNextFixtures(team1.getId(), team2.getId(), LocalDateTime.now(), PageRequest.of(0, 1))
+                        .stream().findFirst());
+    }
+
     // Get past matches
     public List<Match> getPastMatches() {
         return matchRepository.findPastMatches(LocalDateTime.now());
@@ -56,7 +96,8 @@ public class MatchService {
         return matchRepository.findByLeague(league);
     }
 
-    // Create new match
+    // Create new match; the match and its stats rows are saved in one transaction, as in every write below
+    @Transactional
     public Match createMatch(Match match) {
         // Validate teams exist
         if (match.getHomeTeam() == null || match.getAwayTeam() == null) {
@@ -73,13 +114,24 @@ public class MatchService {
             match.setStatus("SCHEDULED");
         }
 
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        Integer homeId = saved.getHomeTeam().getId();
+        Integer awayId = saved.getAwayTeam().getId();
+        AfterCommit.run(() -> fixtureCache.invalidatePair(homeId, awayId));
+        if ("FINISHED".equals(saved.getStatus())) {
+            matchStatsService.recordResult(saved);
+        }
+        return saved;
     }
 
     // Update match
+    @Transactional
     public Match updateMatch(Integer id, Match matchDetails) {
         Match match = matchRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Match not found with id: " + id));
+        boolean wasFinished = "FINISHED".equals(match.getStatus());
+        Integer oldHomeId = match.getHomeTeam().getId();
+        Integer oldAwayId = match.getAwayTeam().getId();
 
         match.setHomeTeam(matchDetails.getHomeTeam());
         match.setAwayTeam(matchDetails.getAwayTeam());
@@ -90,27 +142,84 @@ public class MatchService {
         match.setHomeScore(matchDetails.getHomeScore());
         match.setAwayScore(matchDetails.getAwayScore());
 
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        Integer homeId = saved.getHomeTeam().getId();
+        Integer awayId = saved.getAwayTeam().getId();
+        AfterCommit.run(() -> {
+            predictionCache.invalidateMatch(id);
+            predictionCache.invalidateTeams(homeId, awayId);
+            fixtureCache.invalidatePair(oldHomeId, oldAwayId);
+            fixtureCache.invalidatePair(homeId, awayId);
+        });
+
+        // Any edit touching a finished match can change form and head-to-head of old and new teams
+        if (wasFinished || "FINISHED".equals(saved.getStatus())) {
+            matchStatsService.refresh(oldHomeId, oldAwayId);
+            if (!oldHomeId.equals(saved.getHomeTeam().getId()) || !oldAwayId.equals(saved.getAwayTeam().getId())) {
+                matchStatsService.refresh(saved.getHomeTeam().getId(), saved.getAwayTeam().getId());
+            }
+        }
+        if ("FINISHED".equals(saved.getStatus())) {
+            predictionEvaluationService.evaluateMatch(saved);
+        } else if (wasFinished) {
+            predictionEvaluationService.clearEvaluation(id);
+        }
+        return saved;
     }
 
     // Update match result
+    @Transactional
     public Match updateMatchResult(Integer id, Integer homeScore, Integer awayScore) {
         Match match = matchRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Match not found with id: " + id));
+        boolean wasFinished = "FINISHED".equals(match.getStatus());
 
         match.setHomeScore(homeScore);
         match.setAwayScore(awayScore);
         match.setStatus("FINISHED");
 
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        if (wasFinished) {
+            // Score correction - recompute rather than double count
+            matchStatsService.refresh(saved.getHomeTeam().getId(), saved.getAwayTeam().getId());
+        } else {
+            matchStatsService.recordResult(saved);
+        }
+        // New result changes head-to-head and form for both teams
+        Integer homeId = saved.getHomeTeam().getId();
+        Integer awayId = saved.getAwayTeam().getId();
+        AfterCommit.run(() -> {
+            predictionCache.invalidateTeams(homeId, awayId);
+            fixtureCache.invalidatePair(homeId, awayId);
+        });
+        // Score the predictions made for this match
+        predictionEvaluationService.evaluateMatch(saved);
+        return saved;
     }
 
     // Delete match
+    @Transactional
     public void deleteMatch(Integer id) {
-        if (!matchRepository.existsById(id)) {
-            throw new RuntimeException("Match not found with id: " + id);
-        }
+        Match match = matchRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Match not found with id: " + id));
+        // Predictions are removed with the match (cascade), so collect their vector ids first
+        List<Integer> predictionIds = aiPredictionRepository.findIdsByMatchId(id);
         matchRepository.deleteById(id);
+        Integer homeId = match.getHomeTeam().getId();
+        Integer awayId = match.getAwayTeam().getId();
+        AfterCommit.run(() -> {
+            predictionCache.invalidateMatch(id);
+            fixtureCache.invalidatePair(homeId, awayId);
+            // Only once the row is gone for good: the sync would never re-add vectors of a row that did not change
+            chromaDbService.removeMatch(id, predictionIds);
+        });
+        if (!predictionIds.isEmpty()) {
+            // Deleted predictions can't be subtracted without their rows; re-seed once the delete is visible
+            AfterCommit.run(predictionAnalyticsService::reload);
+        }
+        if ("FINISHED".equals(match.getStatus())) {
+            matchStatsService.refresh(match.getHomeTeam().getId(), match.getAwayTeam().getId());
+        }
     }
 
     // Get match count
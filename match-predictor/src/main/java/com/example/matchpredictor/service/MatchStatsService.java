@@ -0,0 +1,309 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.dto.TeamFormRow;
+import com.example.matchpredictor.entity.HeadToHeadStats;
+import com.example.matchpredictor.entity.Match;
+import com.example.matchpredictor.entity.TeamFormStats;
+import com.example.matchpredictor.repository.HeadToHeadStatsRepository;
+import com.example.matchpredictor.repository.MatchRepository;
+import com.example.matchpredictor.repository.TeamFormStatsRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the team_form_stats and head_to_head_stats tables so RAG prompts are built
+ * from two primary-key lookups instead of loading a team's whole match history.
+ * A newly finished match is folded in incrementally; corrections, edits and deletes
+ * recompute the affected rows from PostgreSQL.
+ * Updates join the caller's transaction (MatchService saves the match in the same one) and
+ * lock the rows they change, so concurrent results for the same team are applied in turn.
+ * Rows are only created on that write path (insert-if-absent, then lock); a read that finds
+ * no row computes the stats from the matches without storing them.
+ *
+ * Reads serve the RAG retrieval, which gives up on them after rag.retrieval.sql-timeout-ms:
+ * they hold one of rag.retrieval.sql-concurrency permits (kept below the connection pool) and
+ * run in a read-only transaction with that timeout, which Hibernate passes to JDBC as the query timeout
+ * so an abandoned read releases its connection instead of running on.
+ */
+@Service
+public class MatchStatsService {
+
+    static final int FORM_LENGTH = 5;
+
+    @Autowired
+    private TeamFormStatsRepository teamFormStatsRepository;
+
+    @Autowired
+    private HeadToHeadStatsRepository headToHeadStatsRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${rag.retrieval.sql-timeout-ms:2000}")
+    private long sqlTimeoutMs;
+
+    @Value("${rag.retrieval.sql-concurrency:8}")
+    private int sqlConcurrency;
+
+    private TransactionTemplate readTransaction;
+    private Semaphore readPermits;
+
+    // One finished match, seen from one team
+    public record FormEntry(Integer matchId, LocalDateTime matchDate, String opponent,
+                            int teamScore, int opponentScore) {
+
+        public char result() {
+            if (teamScore > opponentScore) return 'W';
+            if (teamScore < opponentScore) return 'L';
+            return 'D';
+        }
+    }
+
+    // Head-to-head seen from the first team passed to getHeadToHead
+    public record HeadToHeadRecord(int matches, int wins, int draws, int losses,
+                                   int goalsFor, int goalsAgainst) {
+    }
+
+    @PostConstruct
+    public void createReadLimits() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        // Transaction timeouts are whole seconds
+        readTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sqlTimeoutMs + 999)));
+        readPermits = new Semaphore(sqlConcurrency);
+    }
+
+    // ---------- Reads ----------
+
+    public List<FormEntry> getRecentForm(Integer teamId) {
+        return boundedRead(() -> {
+            Optional<TeamFormStats> stats = teamFormStatsRepository.findById(teamId);
+            return stats.isPresent() ? decode(stats.get().getRecentResults()) : computeForm(teamId);
+        });
+    }
+
+    public HeadToHeadRecord getHeadToHead(Integer teamId, Integer opponentId) {
+        return boundedRead(() -> readHeadToHead(teamId, opponentId));
+    }
+
+    private HeadToHeadRecord readHeadToHead(Integer teamId, Integer opponentId) {
+        Integer low = Math.min(teamId, opponentId);
+        Integer high = Math.max(teamId, opponentId);
+        HeadToHeadStats stats = headToHeadStatsRepository.findByTeamLowIdAndTeamHighId(low, high)
+                .orElseGet(() -> computeHeadToHead(new HeadToHeadStats(low, high))); // not stored
+
+        boolean teamIsLow = teamId.equals(low);
+        return new HeadToHeadRecord(
+                stats.getMatches(),
+                teamIsLow ? stats.getLowWins() : stats.getHighWins(),
+                stats.getDraws(),
+                teamIsLow ? stats.getHighWins() : stats.getLowWins(),
+                teamIsLow ? stats.getLowGoals() : stats.getHighGoals(),
+                teamIsLow ? stats.getHighGoals() : stats.getLowGoals());
+    }
+
+    private <T> T boundedRead(Supplier<T> read) {
+        try {
+            // Waiting longer than the retrieval timeout is pointless, the caller has moved on
+            if (!readPermits.tryAcquire(sqlTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Too many concurrent stats reads");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for a stats read");
+        }
+
+        try {
+            return readTransaction.execute(status -> read.get());
+        } finally {
+            readPermits.release();
+        }
+    }
+
+    // ---------- Updates ----------
+
+    /**
+     * A match has just become FINISHED (already saved): add it to both teams' form
+     * and to the pair's head-to-head without re-reading history.
+     */
+    @Transactional
+    public void recordResult(Match match) {
+        Integer homeId = match.getHomeTeam().getId();
+        Integer awayId = match.getAwayTeam().getId();
+        Integer low = Math.min(homeId, awayId);
+        Integer high = Math.max(homeId, awayId);
+
+        // Rows are always locked lowest team id first, so two updates cannot deadlock
+        addToForm(low, match);
+        addToForm(high, match);
+
+        boolean created = headToHeadStatsRepository.insertIfAbsent(low, high) > 0;
+        HeadToHeadStats stats = lockHeadToHead(low, high);
+        if (created) {
+            // Built from PostgreSQL, which already includes this match
+            headToHeadStatsRepository.save(computeHeadToHead(stats));
+            return;
+        }
+
+        boolean homeIsLow = homeId.equals(low);
+        int lowScore = homeIsLow ? match.getHomeScore() : match.getAwayScore();
+        int highScore = homeIsLow ? match.getAwayScore() : match.getHomeScore();
+
+        stats.setMatches(stats.getMatches() + 1);
+        if (lowScore > highScore) stats.setLowWins(stats.getLowWins() + 1);
+        else if (lowScore < highScore) stats.setHighWins(stats.getHighWins() + 1);
+        else stats.setDraws(stats.getDraws() + 1);
+        stats.setLowGoals(stats.getLowGoals() + lowScore);
+        stats.setHighGoals(stats.getHighGoals() + highScore);
+        headToHeadStatsRepository.save(stats);
+    }
+
+    /**
+     * A finished result was corrected, edited or deleted: an increment can't be undone
+     * safely, so both teams' form and the pair's head-to-head are recomputed.
+     */
+    @Transactional
+    public void refresh(Integer homeTeamId, Integer awayTeamId) {
+        Integer low = Math.min(homeTeamId, awayTeamId);
+        Integer high = Math.max(homeTeamId, awayTeamId);
+        rebuildForm(low);
+        rebuildForm(high);
+        rebuildHeadToHead(low, high);
+    }
+
+    private void addToForm(Integer teamId, Match match) {
+        boolean created = teamFormStatsRepository.insertIfAbsent(teamId) > 0;
+        TeamFormStats stats = lockForm(teamId);
+        if (created) {
+            stats.setRecentResults(encode(computeForm(teamId)));
+            teamFormStatsRepository.save(stats);
+            return;
+        }
+
+        List<FormEntry> entries = new ArrayList<>(decode(stats.getRecentResults()));
+        entries.removeIf(e -> e.matchId().equals(match.getId()));
+        entries.add(toEntry(teamId, match));
+        entries.sort(Comparator.comparing(FormEntry::matchDate).reversed());
+
+        stats.setRecentResults(encode(entries.subList(0, Math.min(FORM_LENGTH, entries.size()))));
+        teamFormStatsRepository.save(stats);
+    }
+
+    private void rebuildForm(Integer teamId) {
+        teamFormStatsRepository.insertIfAbsent(teamId);
+        // Locked before reading the matches, so a concurrent update is either fully seen or waits
+        TeamFormStats stats = lockForm(teamId);
+        stats.setRecentResults(encode(computeForm(teamId)));
+        teamFormStatsRepository.save(stats);
+    }
+
+    private void rebuildHeadToHead(Integer low, Integer high) {
+        headToHeadStatsRepository.insertIfAbsent(low, high);
+        headToHeadStatsRepository.save(computeHeadToHead(lockHeadToHead(low, high)));
+    }
+
+    // Only called after insertIfAbsent in the same transaction, so the row exists
+    private TeamFormStats lockForm(Integer teamId) {
+        return teamFormStatsRepository.findForUpdate(teamId)
+                .orElseThrow(() -> new IllegalStateException("team_form_stats row missing for team " + teamId));
+    }
+
+    private HeadToHeadStats lockHeadToHead(Integer low, Integer high) {
+        return headToHeadStatsRepository.findForUpdate(low, high)
+                .orElseThrow(() -> new IllegalStateException("head_to_head_stats row missing for " + low + "/" + high));
+    }
+
+    private List<FormEntry> computeForm(Integer teamId) {
+        // Top 5 home + top 5 away rows, merged: the overall top 5 is always among them
+        List<TeamFormRow> rows = new ArrayList<>(
+                matchRepository.findRecentHomeForm(teamId, "FINISHED", PageRequest.of(0, FORM_LENGTH)));
+        rows.addAll(matchRepository.findRecentAwayForm(teamId, "FINISHED", PageRequest.of(0, FORM_LENGTH)));
+
+        return rows.stream()
+                .sorted(Comparator.comparing(TeamFormRow::matchDate).reversed())
+                .limit(FORM_LENGTH)
+                .map(r -> new FormEntry(r.matchId(), r.matchDate(), r.opponent(), r.teamScore(), r.opponentScore()))
+                .toList();
+    }
+
+    // Fills the pair's totals from PostgreSQL into stats (stored or not, as the caller decides)
+    private HeadToHeadStats computeHeadToHead(HeadToHeadStats stats) {
+        List<Object[]> rows = matchRepository.aggregateHeadToHead(stats.getTeamLowId(), stats.getTeamHighId());
+        Object[] row = rows.isEmpty() ? new Object[5] : rows.get(0);
+
+        int matches = toInt(row[0]);
+        int lowWins = toInt(row[1]);
+        int draws = toInt(row[2]);
+
+        stats.setMatches(matches);
+        stats.setLowWins(lowWins);
+        stats.setDraws(draws);
+        stats.setHighWins(matches - lowWins - draws);
+        stats.setLowGoals(toInt(row[3]));
+        stats.setHighGoals(toInt(row[4]));
+        return stats;
+    }
+
+    // ---------- Encoding ----------
+
+    private FormEntry toEntry(Integer teamId, Match match) {
+        boolean isHome = match.getHomeTeam().getId().equals(teamId);
+        return new FormEntry(
+                match.getId(),
+                match.getMatchDate(),
+                isHome ? match.getAwayTeam().getName() : match.getHomeTeam().getName(),
+                isHome ? match.getHomeScore() : match.getAwayScore(),
+                isHome ? match.getAwayScore() : match.getHomeScore());
+    }
+
+    private String encode(List<FormEntry> entries) {
+        StringBuilder text = new StringBuilder();
+        for (FormEntry e : entries) {
+            text.append(e.matchId()).append('|')
+                    .append(e.matchDate()).append('|')
+                    .append(e.opponent().replace('|', '/').replace('\n', ' ')).append('|')
+                    .append(e.teamScore()).append('|')
+                    .append(e.opponentScore()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private List<FormEntry> decode(String text) {
+        if (text == null || text.isEmpty()) return List.of();
+
+        List<FormEntry> entries = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            String[] parts = line.split("\\|");
+            if (parts.length != 5) continue;
+            entries.add(new FormEntry(
+                    Integer.valueOf(parts[0]),
+                    LocalDateTime.parse(parts[1]),
+                    parts[2],
+                    Integer.parseInt(parts[3]),
+                    Integer.parseInt(parts[4])));
+        }
+        return entries;
+    }
+
+    private int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+}
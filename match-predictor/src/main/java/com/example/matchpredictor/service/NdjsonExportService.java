@@ -0,0 +1,75 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.repository.AiPredictionRepository;
+import com.example.matchpredictor.repository.ConversationContextRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables as newline-delimited JSON while the rows are still being read:
+ * the query runs as a server-side cursor and the persistence context is cleared every
+ * FLUSH_EVERY rows, so memory stays flat however large the history grows.
+ */
+@Service
+public class NdjsonExportService {
+
+    private static final int FLUSH_EVERY = 500; // matches the fetch size hinted on the streaming queries
+
+    @Autowired
+    private AiPredictionRepository aiPredictionRepository;
+
+    @Autowired
+    private ConversationContextRepository conversationContextRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Every prediction (with its match and teams), oldest first; returns the number of rows written
+    @Transactional(readOnly = true)
+    public long exportPredictions(OutputStream out) {
+        try (Stream<?> rows = aiPredictionRepository.streamAllWithMatch()) {
+            return write(rows, out);
+        }
+    }
+
+    // One session's conversation history, oldest first; returns the number of rows written
+    @Transactional(readOnly = true)
+    public long exportConversationHistory(String sessionId, OutputStream out) {
+        try (Stream<?> rows = conversationContextRepository.streamBySessionId(sessionId)) {
+            return write(rows, out);
+        }
+    }
+
+    private long write(Stream<?> rows, OutputStream out) {
+        long count = 0;
+        try {
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++count % FLUSH_EVERY == 0) {
+                    out.flush();              // hand the rows to the client as they arrive
+                    entityManager.clear();    // and drop them from the session
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // Usually the client went away; the cursor is closed by the caller
+            throw new UncheckedIOException("NDJSON export aborted after " + count + " rows", e);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.matchpredictor.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.OllamaChatClient;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single entry point for every LLM call in the application.
+ * Wraps the shared OllamaChatClient bean (pooled HTTP client from OllamaConfig)
+ * so no code path builds its own OllamaApi per request.
+ * Every call holds one of ollama.max-concurrent-requests permits while Ollama works on it
+ * (a stream for its whole lifetime), so single, batch, job and streaming predictions together
+ * never run more generations than the host is sized for. Blocking calls wait in line;
+ * streams give up after prediction.stream.permit-wait-ms.
+ */
+@Service
+public class OllamaGateway {
+
+    @Autowired
+    private OllamaChatClient ollamaChatClient;
+
+    @Autowired
+    private RagPipelineMetrics ragPipelineMetrics;
+
+    @Value("${spring.ai.ollama.chat.model:llama3.2}")
+    private String model;
+
+    @Value("${ollama.max-concurrent-requests:4}")
+    private int maxConcurrentRequests;
+
+    // How long a stream waits for a free permit before it is refused
+    @Value("${prediction.stream.permit-wait-ms:10000}")
+    private long streamPermitWaitMs;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void createPermits() {
+        permits = new Semaphore(maxConcurrentRequests, true); // fair: first come, first served
+    }
+
+    // Send a prompt to the configured model and return the raw text answer
+    public String generate(String prompt) {
+        long start = System.nanoTime();
+        ChatResponse response = call(new Prompt(prompt, OllamaOptions.create().withModel(model)));
+        String answer = response.getResult().getOutput().getContent();
+        ragPipelineMetrics.recordGeneration(model, "call", TokenEstimator.estimate(answer), System.nanoTime() - start);
+        return answer;
+    }
+
+    // Same as generate, but with Ollama's format=json: the answer is always a JSON document
+    public String generateJson(String prompt) {
+        long start = System.nanoTime();
+        ChatResponse response = call(new Prompt(prompt, OllamaOptions.create().withModel(model).withFormat("json")));
+        String answer = response.getResult().getOutput().getContent();
+        ragPipelineMetrics.recordGeneration(model, "json", TokenEstimator.estimate(answer), System.nanoTime() - start);
+        return answer;
+    }
+
+    // Same as generate, but emits the answer token by token as Ollama produces it; blocks while waiting for a permit
+    public Flux<String> stream(String prompt) {
+        // The permit is given back on completion, error or cancellation (listeners cancel when their client goes away)
+        return Flux.using(this::acquireStreamPermit, permit -> {
+            long start = System.nanoTime();
+            AtomicInteger tokens = new AtomicInteger(); // Ollama streams one token per chunk
+            return ollamaChatClient.stream(new Prompt(prompt, OllamaOptions.create().withModel(model)))
+                    .filter(response -> response.getResult() != null
+                            && response.getResult().getOutput() != null
+                            && response.getResult().getOutput().getContent() != null)
+                    .map(response -> response.getResult().getOutput().getContent())
+                    .doOnNext(token -> {
+                        if (tokens.getAndIncrement() == 0) {
+                            ragPipelineMetrics.recordFirstToken(model, System.nanoTime() - start);
+                        }
+                    })
+                    .doOnComplete(() -> ragPipelineMetrics.recordGeneration(
+                            model, "stream", tokens.get(), System.nanoTime() - start));
+        }, permit -> permits.release());
+    }
+
+    // Time spent waiting for a permit counts toward the recorded latency, as the caller sees it
+    private ChatResponse call(Prompt prompt) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for Ollama");
+        }
+        try {
+            return ollamaChatClient.call(prompt);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Semaphore acquireStreamPermit() throws InterruptedException {
+        if (!permits.tryAcquire(streamPermitWaitMs, TimeUnit.MILLISECONDS)) {
+            throw new RuntimeException("Ollama is busy with other predictions, try again later");
+        }
+        return permits;
+    }
+
+    public String getModel() {
+        return model;
+    }
+}
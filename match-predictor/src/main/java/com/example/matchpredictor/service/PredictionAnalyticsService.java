@@ -0,0 +1,322 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.dto.PredictionGroupStats;
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.entity.Match;
+import com.example.matchpredictor.repository.AiPredictionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the prediction analytics as running totals instead of recomputing them.
+ * Totals are seeded once from the GROUP BY queries, then every saved prediction and every
+ * evaluation adds to them in O(1). A scheduled flush writes the "analytics_latest" document
+ * when something changed, and a slower reconcile re-seeds from PostgreSQL to absorb deletes.
+ * Events that arrive while a re-seed is querying are applied to the live totals and also kept,
+ * then replayed onto the new totals when they are swapped in, so none is lost to the swap.
+ * Callers report events only after their transaction has committed.
+ */
+@Service
+public class PredictionAnalyticsService {
+
+    private static final String UNKNOWN = "unknown";
+
+    @Autowired
+    private AiPredictionRepository aiPredictionRepository;
+
+    @Autowired
+    private ChromaDbService chromaDbService;
+
+    @Value("${analytics.daily-buckets:30}")
+    private int dailyBuckets;
+
+    // Running totals for one group; guarded by the service lock
+    private static final class Accumulator {
+        long predictions;
+        double confidenceSum;
+        long evaluated;
+        long correct;
+
+        void seed(PredictionGroupStats stats) {
+            predictions = stats.predictionCount();
+            confidenceSum = stats.averageConfidence() != null ? stats.averageConfidence() * predictions : 0;
+            evaluated = stats.evaluatedCount();
+            correct = stats.correctCount();
+        }
+
+        PredictionGroupStats snapshot(String key) {
+            return new PredictionGroupStats(key, predictions,
+                    predictions > 0 ? confidenceSum / predictions : 0.0, evaluated, correct);
+        }
+    }
+
+    private Accumulator totals = new Accumulator();
+    private Map<String, Accumulator> byTeam = new HashMap<>();
+    private Map<String, Accumulator> byLeague = new HashMap<>();
+    private Map<String, Accumulator> byModel = new HashMap<>();
+    private TreeMap<LocalDate, Accumulator> byDay = new TreeMap<>();
+    private boolean loaded;
+    private boolean dirty;
+
+    // Events seen while a reload runs, replayed onto its totals; guarded by the service lock
+    private boolean reloading;
+    private final List<Runnable> pendingEvents = new ArrayList<>();
+
+    // Reloads run one at a time, so each replays exactly the events since its own queries started
+    private final Object reloadLock = new Object();
+
+    // ---------- Events ----------
+
+    // A prediction was saved (called after the insert has committed)
+    public void recordPrediction(AiPrediction prediction) {
+        recordPredictions(List.of(prediction));
+    }
+
+    public synchronized void recordPredictions(List<AiPrediction> predictions) {
+        record(() -> {
+            for (AiPrediction prediction : predictions) {
+                double confidence = prediction.getConfidenceScore() != null
+                        ? prediction.getConfidenceScore().doubleValue() : 0;
+                for (Accumulator accumulator : accumulatorsFor(prediction)) {
+                    accumulator.predictions++;
+                    accumulator.confidenceSum += confidence;
+                }
+            }
+        });
+    }
+
+    /**
+     * A prediction was scored against the final result. previous is the value is_correct
+     * had before (null the first time), so a corrected result moves the prediction
+     * between correct and wrong instead of being counted twice.
+     */
+    public synchronized void recordEvaluation(AiPrediction prediction, Boolean previous, boolean correct) {
+        record(() -> {
+            for (Accumulator accumulator : accumulatorsFor(prediction)) {
+                if (previous == null) {
+                    accumulator.evaluated++;
+                } else if (previous) {
+                    accumulator.correct--;
+                }
+                if (correct) {
+                    accumulator.correct++;
+                }
+            }
+        });
+    }
+
+    // Caller holds the lock. Before the first seed an event is only kept for the running reload (if any)
+    private void record(Runnable event) {
+        if (reloading) {
+            pendingEvents.add(event);
+        }
+        if (loaded) {
+            event.run();
+            dirty = true;
+        }
+    }
+
+    // ---------- Seeding and publishing ----------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+        publish();
+    }
+
+    // Re-seed every accumulator from the GROUP BY queries (milliseconds, one row per group)
+    @Scheduled(fixedDelayString = "${analytics.reconcile-interval-ms:3600000}",
+            initialDelayString = "${analytics.reconcile-interval-ms:3600000}")
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                reloading = true;
+                pendingEvents.clear();
+            }
+            try {
+                reseed();
+            } catch (Exception e) {
+                System.out.println("⚠️ Analytics reload failed: " + e.getMessage());
+            } finally {
+                synchronized (this) {
+                    reloading = false;
+                    pendingEvents.clear();
+                }
+            }
+        }
+    }
+
+    private void reseed() {
+        PredictionGroupStats totalRow = aiPredictionRepository.aggregateTotals();
+        List<PredictionGroupStats> homeRows = aiPredictionRepository.aggregateByHomeTeam();
+        List<PredictionGroupStats> awayRows = aiPredictionRepository.aggregateByAwayTeam();
+        List<PredictionGroupStats> leagueRows = aiPredictionRepository.aggregateByLeague();
+        List<PredictionGroupStats> modelRows = aiPredictionRepository.aggregateByModelVersion();
+        List<PredictionGroupStats> dayRows = aiPredictionRepository.aggregateByDaySince(
+                windowStart().atStartOfDay());
+
+        Accumulator newTotals = new Accumulator();
+        newTotals.seed(totalRow);
+
+        Map<String, PredictionGroupStats> teamRows = new HashMap<>();
+        for (PredictionGroupStats row : homeRows) teamRows.merge(row.key(), row, PredictionGroupStats::plus);
+        for (PredictionGroupStats row : awayRows) teamRows.merge(row.key(), row, PredictionGroupStats::plus);
+
+        TreeMap<LocalDate, Accumulator> newByDay = new TreeMap<>();
+        for (PredictionGroupStats row : dayRows) {
+            newByDay.computeIfAbsent(LocalDate.parse(row.key()), d -> new Accumulator()).seed(row);
+        }
+
+        synchronized (this) {
+            totals = newTotals;
+            byTeam = seed(teamRows.values());
+            byLeague = seed(leagueRows);
+            byModel = seed(modelRows);
+            byDay = newByDay;
+            loaded = true;
+            dirty = true;
+            // Events since the queries started may be missing from their rows
+            pendingEvents.forEach(Runnable::run);
+            pendingEvents.clear();
+        }
+    }
+
+    // Write the analytics document if anything changed since the last flush
+    @Scheduled(fixedDelayString = "${analytics.flush-interval-ms:60000}",
+            initialDelayString = "${analytics.flush-interval-ms:60000}")
+    public void flush() {
+        synchronized (this) {
+            if (!dirty) return;
+        }
+        publish();
+    }
+
+    // Write the analytics document now
+    public void publish() {
+        if (!chromaDbService.isConnected()) return;
+
+        String document;
+        Map<String, String> metadata = new HashMap<>();
+        synchronized (this) {
+            if (!loaded) return;
+            PredictionGroupStats total = totals.snapshot("all");
+            document = buildDocument(total);
+            metadata.put("total_predictions", String.valueOf(total.predictionCount()));
+            metadata.put("accuracy", String.valueOf(total.accuracy()));
+            metadata.put("timestamp", new java.util.Date().toString());
+            dirty = false;
+        }
+
+        if (!chromaDbService.storeAnalytics(document, metadata)) {
+            synchronized (this) {
+                dirty = true; // retried on the next flush
+            }
+        }
+    }
+
+    public synchronized PredictionGroupStats getTotals() {
+        return totals.snapshot("all");
+    }
+
+    // ---------- Helpers ----------
+
+    private List<Accumulator> accumulatorsFor(AiPrediction prediction) {
+        Match match = prediction.getMatch();
+        LocalDate day = prediction.getCreatedAt() != null
+                ? prediction.getCreatedAt().toLocalDate() : LocalDate.now();
+
+        List<Accumulator> accumulators = new ArrayList<>(6);
+        accumulators.add(totals);
+        accumulators.add(byTeam.computeIfAbsent(keyOf(match.getHomeTeam().getName()), k -> new Accumulator()));
+        accumulators.add(byTeam.computeIfAbsent(keyOf(match.getAwayTeam().getName()), k -> new Accumulator()));
+        accumulators.add(byLeague.computeIfAbsent(keyOf(match.getLeague()), k -> new Accumulator()));
+        accumulators.add(byModel.computeIfAbsent(keyOf(prediction.getModelVersion()), k -> new Accumulator()));
+
+        // Rolling window: drop days that fell out of it; older predictions only count in the totals
+        LocalDate windowStart = windowStart();
+        byDay.headMap(windowStart).clear();
+        if (!day.isBefore(windowStart)) {
+            accumulators.add(byDay.computeIfAbsent(day, d -> new Accumulator()));
+        }
+        return accumulators;
+    }
+
+    private LocalDate windowStart() {
+        return LocalDate.now().minusDays(dailyBuckets - 1);
+    }
+
+    private Map<String, Accumulator> seed(Collection<PredictionGroupStats> rows) {
+        Map<String, Accumulator> accumulators = new HashMap<>();
+        for (PredictionGroupStats row : rows) {
+            accumulators.computeIfAbsent(keyOf(row.key()), k -> new Accumulator()).seed(row);
+        }
+        return accumulators;
+    }
+
+    private String keyOf(String key) {
+        return key != null ? key : UNKNOWN;
+    }
+
+    private String buildDocument(PredictionGroupStats total) {
+        return String.format("""
+                Prediction System Analytics Summary:
+                Total predictions made: %d
+                Average confidence score: %.2f
+                Evaluated predictions: %d
+                Correct predictions: %d
+                Accuracy rate: %.1f%%
+                Most predicted teams: %s
+                Most predicted leagues: %s
+                Accuracy by model: %s
+                Daily accuracy (last 7 days): %s
+                System performance: %s
+                """,
+                total.predictionCount(),
+                total.averageConfidence(),
+                total.evaluatedCount(),
+                total.correctCount(),
+                total.accuracy(),
+                getTopEntries(byTeam, 3),
+                getTopEntries(byLeague, 3),
+                getAccuracies(byModel.entrySet().stream()
+                        .map(e -> e.getValue().snapshot(e.getKey())).toList()),
+                getAccuracies(byDay.descendingMap().entrySet().stream()
+                        .limit(7)
+                        .map(e -> e.getValue().snapshot(e.getKey().toString())).toList()),
+                total.evaluatedCount() > 0 ?
+                        (total.accuracy() > 60 ? "Good" : "Needs improvement") :
+                        "Not enough data"
+        );
+    }
+
+    private String getTopEntries(Map<String, Accumulator> groups, int limit) {
+        return groups.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Accumulator> e) -> e.getValue().predictions).reversed())
+                .limit(limit)
+                .map(e -> e.getKey() + " (" + e.getValue().predictions + ")")
+                .reduce((a, b) -> a + ", " + b)
+                .orElse("None");
+    }
+
+    private String getAccuracies(List<PredictionGroupStats> groups) {
+        return groups.stream()
+                .filter(g -> g.evaluatedCount() > 0)
+                .map(g -> String.format("%s %.1f%% (%d/%d)", g.key(),
+                        g.accuracy(), g.correctCount(), g.evaluatedCount()))
+                .reduce((a, b) -> a + ", " + b)
+                .orElse("Not enough data");
+    }
+}
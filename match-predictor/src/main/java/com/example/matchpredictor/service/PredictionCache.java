@@ -0,0 +1,107 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.entity.Match;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * In-memory cache of generated predictions, keyed by match id plus the
+ * fingerprint of the retrieved RAG context. Size-bounded (LRU) with a TTL;
+ * entries are dropped when a match involving either team changes.
+ */
+@Component
+public class PredictionCache {
+
+    @Value("${prediction.cache.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${prediction.cache.max-size:500}")
+    private int maxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    // Access-ordered so the least recently used entry is evicted first
+    private final LinkedHashMap<String, CachedPrediction> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPrediction> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    @PostConstruct
+    public void registerMetrics() {
+        hitCounter = Counter.builder("prediction.cache").tag("result", "hit").register(meterRegistry);
+        missCounter = Counter.builder("prediction.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public synchronized Optional<AiPrediction> get(Integer matchId, String contextFingerprint) {
+        String key = key(matchId, contextFingerprint);
+        CachedPrediction cached = entries.get(key);
+
+        if (cached != null && cached.isExpired(ttlMinutes)) {
+            entries.remove(key);
+            cached = null;
+        }
+
+        if (cached == null) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+
+        hitCounter.increment();
+        return Optional.of(cached.prediction());
+    }
+
+    public synchronized void put(Match match, String contextFingerprint, AiPrediction prediction) {
+        entries.put(key(match.getId(), contextFingerprint), new CachedPrediction(
+                prediction,
+                match.getId(),
+                Set.of(match.getHomeTeam().getId(), match.getAwayTeam().getId()),
+                System.nanoTime()
+        ));
+    }
+
+    public synchronized void invalidateMatch(Integer matchId) {
+        entries.values().removeIf(cached -> cached.matchId().equals(matchId));
+    }
+
+    // A result changes head-to-head and form for both teams, so every fixture involving them is stale
+    public synchronized void invalidateTeams(Integer... teamIds) {
+        for (Integer teamId : teamIds) {
+            entries.values().removeIf(cached -> cached.teamIds().contains(teamId));
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private String key(Integer matchId, String contextFingerprint) {
+        return matchId + ":" + contextFingerprint;
+    }
+
+    private record CachedPrediction(AiPrediction prediction, Integer matchId, Set<Integer> teamIds, long cachedAtNanos) {
+        boolean isExpired(long ttlMinutes) {
+            return System.nanoTime() - cachedAtNanos > Duration.ofMinutes(ttlMinutes).toNanos();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.entity.Match;
+import com.example.matchpredictor.repository.AiPredictionRepository;
+import com.example.matchpredictor.repository.MatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Scores predictions against final results: is_correct (argmax), brier_score and log_loss.
+ * A match is scored with one set-based UPDATE as soon as its result is entered;
+ * the backfill does the same for finished matches that were never scored, a page at a time.
+ */
+@Service
+public class PredictionEvaluationService {
+
+    @Autowired
+    private AiPredictionRepository aiPredictionRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PredictionAnalyticsService predictionAnalyticsService;
+
+    @Autowired
+    @Qualifier("evaluationExecutor")
+    private ExecutorService evaluationExecutor;
+
+    @Value("${prediction.evaluation.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${prediction.evaluation.batch-size:100}")
+    private int batchSize;
+
+    // Score all predictions of a finished match (a corrected result re-scores them); returns rows updated
+    public int evaluateMatch(Match match) {
+        if (!isScorable(match)) return 0;
+
+        // Previous values are needed so the analytics move predictions instead of counting them twice
+        List<AiPrediction> before = aiPredictionRepository.findByMatch(match);
+        if (before.isEmpty()) return 0;
+
+        int updated = score(match);
+
+        Map<Integer, Boolean> after = new HashMap<>();
+        for (Object[] row : aiPredictionRepository.findCorrectnessByMatchId(match.getId())) {
+            after.put((Integer) row[0], (Boolean) row[1]);
+        }
+        // Counted once the scores are committed (MatchService scores inside its transaction)
+        AfterCommit.run(() -> {
+            for (AiPrediction prediction : before) {
+                Boolean correct = after.get(prediction.getId());
+                if (correct != null) {
+                    predictionAnalyticsService.recordEvaluation(prediction, prediction.getIsCorrect(), correct);
+                }
+            }
+        });
+        return updated;
+    }
+
+    // The match is no longer finished: its predictions go back to unscored
+    public void clearEvaluation(Integer matchId) {
+        if (aiPredictionRepository.clearEvaluationForMatch(matchId) > 0) {
+            AfterCommit.run(predictionAnalyticsService::reload);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            startBackfill();
+        }
+    }
+
+    public void startBackfill() {
+        evaluationExecutor.execute(this::backfill);
+    }
+
+    // Score every finished match that still has unscored predictions; returns matches scored
+    public synchronized int backfill() {
+        long start = System.currentTimeMillis();
+        int matches = 0;
+        int predictions = 0;
+        try {
+            Integer afterId = 0;
+            List<Match> page;
+            do {
+                page = matchRepository.findFinishedWithUnevaluatedPredictions(afterId, PageRequest.of(0, batchSize));
+                for (Match match : page) {
+                    predictions += score(match);
+                    matches++;
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == batchSize);
+
+            if (matches > 0) {
+                predictionAnalyticsService.reload();
+                System.out.println("✅ Evaluation backfill: " + predictions + " predictions across "
+                        + matches + " matches in " + (System.currentTimeMillis() - start) + " ms");
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Evaluation backfill stopped after " + matches + " matches: " + e.getMessage());
+        }
+        return matches;
+    }
+
+    private int score(Match match) {
+        int home = match.getHomeScore() > match.getAwayScore() ? 1 : 0;
+        int away = match.getHomeScore() < match.getAwayScore() ? 1 : 0;
+        int draw = 1 - home - away;
+        return aiPredictionRepository.evaluateForMatch(match.getId(), home, draw, away);
+    }
+
+    private boolean isScorable(Match match) {
+        return "FINISHED".equals(match.getStatus())
+                && match.getHomeScore() != null && match.getAwayScore() != null;
+    }
+}
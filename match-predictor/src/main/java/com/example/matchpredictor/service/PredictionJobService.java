@@ -0,0 +1,251 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.dto.BatchPredictionResult;
+import com.example.matchpredictor.dto.PredictionJob;
+import com.example.matchpredictor.entity.Match;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs RAG predictions (single matches and whole matchdays) off the servlet threads.
+ * Jobs are queued on the bounded predictionJobExecutor and polled by id
+ * (or pushed to an optional callback URL once finished).
+ * Callback URLs must be http(s) and point at a public address, or at a host listed in
+ * prediction.jobs.callback.allowed-hosts; they are posted from their own small pool.
+ */
+@Service
+public class PredictionJobService {
+
+    @Autowired
+    private AiPredictionService aiPredictionService;
+
+    @Autowired
+    private BatchPredictionService batchPredictionService;
+
+    @Autowired
+    @Qualifier("predictionJobExecutor")
+    private ThreadPoolExecutor predictionJobExecutor;
+
+    @Autowired
+    @Qualifier("predictionCallbackExecutor")
+    private ThreadPoolExecutor predictionCallbackExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${prediction.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    // Comma-separated; an allowed host may be internal, any other host must resolve to a public address
+    @Value("${prediction.jobs.callback.allowed-hosts:}")
+    private Set<String> allowedCallbackHosts;
+
+    @Value("${prediction.jobs.callback.connect-timeout-ms:2000}")
+    private int callbackConnectTimeoutMs;
+
+    @Value("${prediction.jobs.callback.read-timeout-ms:5000}")
+    private int callbackReadTimeoutMs;
+
+    private final Map<String, PredictionJob> jobs = new ConcurrentHashMap<>();
+    private RestClient callbackClient;
+
+    private Timer waitTimer;
+    private Timer successTimer;
+    private Timer failureTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void createCallbackClient() {
+        // The JDK request factory does not follow redirects on POST, so a callback cannot be bounced inside
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(callbackConnectTimeoutMs);
+        requestFactory.setReadTimeout(callbackReadTimeoutMs);
+        callbackClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("prediction.jobs.queue.depth", predictionJobExecutor, executor -> executor.getQueue().size())
+                .description("Prediction jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("prediction.jobs.active", predictionJobExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Prediction jobs currently running")
+                .register(meterRegistry);
+
+        waitTimer = Timer.builder("prediction.jobs.wait")
+                .description("Time a prediction job spent queued before a worker picked it up")
+                .register(meterRegistry);
+        successTimer = Timer.builder("prediction.jobs.execution")
+                .description("Time spent generating the prediction")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        failureTimer = Timer.builder("prediction.jobs.execution")
+                .description("Time spent generating the prediction")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("prediction.jobs.rejected")
+                .description("Jobs refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    // Queue a prediction and return immediately; throws IllegalArgumentException for a bad callback URL
+    // and RejectedExecutionException if the queue is full
+    public PredictionJob submit(Integer matchId, String callbackUrl) {
+        PredictionJob job = new PredictionJob(UUID.randomUUID().toString(), matchId, callbackUrl);
+        return enqueue(job, () -> job.setPrediction(aiPredictionService.generatePrediction(matchId)));
+    }
+
+    // Queue predictions for a whole matchday as one job; same errors as submit
+    public PredictionJob submitBatch(List<Match> matches, String callbackUrl) {
+        PredictionJob job = new PredictionJob(UUID.randomUUID().toString(),
+                matches.stream().map(Match::getId).toList(), callbackUrl);
+        return enqueue(job, () -> job.setBatchResult(batchPredictionService.predictMatches(matches)));
+    }
+
+    private PredictionJob enqueue(PredictionJob job, Runnable work) {
+        validateCallbackUrl(job.getCallbackUrl());
+        purgeExpiredJobs();
+
+        long submittedNanos = System.nanoTime();
+        jobs.put(job.getId(), job);
+
+        try {
+            predictionJobExecutor.execute(() -> runJob(job, work, submittedNanos));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Prediction queue is full, try again later");
+        }
+
+        return job;
+    }
+
+    public Optional<PredictionJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void runJob(PredictionJob job, Runnable work, long submittedNanos) {
+        long startNanos = System.nanoTime();
+        waitTimer.record(startNanos - submittedNanos, TimeUnit.NANOSECONDS);
+
+        job.setStartedAt(LocalDateTime.now());
+        job.setStatus(PredictionJob.RUNNING);
+
+        // completedAt is set before the final status so pollers never see a finished job without it
+        try {
+            work.run();
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus(PredictionJob.COMPLETED);
+            successTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            job.setError(e.getMessage());
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus(PredictionJob.FAILED);
+            failureTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        notifyCallback(job);
+    }
+
+    private void notifyCallback(PredictionJob job) {
+        if (job.getCallbackUrl() == null || job.getCallbackUrl().isBlank()) return;
+
+        try {
+            predictionCallbackExecutor.execute(() -> postCallback(job));
+        } catch (RejectedExecutionException e) {
+            System.out.println("⚠️ Prediction job callback dropped for " + job.getId() + ": callback queue is full");
+        }
+    }
+
+    private void postCallback(PredictionJob job) {
+        try {
+            // Checked again before sending, in case the host now resolves somewhere else
+            validateCallbackUrl(job.getCallbackUrl());
+            callbackClient.post()
+                    .uri(job.getCallbackUrl())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(job)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (Exception e) {
+            System.out.println("⚠️ Prediction job callback failed for " + job.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private void validateCallbackUrl(String callbackUrl) {
+        if (callbackUrl == null || callbackUrl.isBlank()) return;
+
+        URI uri;
+        try {
+            uri = URI.create(callbackUrl.strip());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Callback URL is not a valid URL");
+        }
+
+        String scheme = uri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            throw new IllegalArgumentException("Callback URL must use http or https");
+        }
+        String host = uri.getHost();
+        if (host == null || uri.getUserInfo() != null) {
+            throw new IllegalArgumentException("Callback URL must name a host");
+        }
+
+        if (allowedCallbackHosts.stream().anyMatch(allowed -> allowed.strip().equalsIgnoreCase(host))) return;
+        if (!allowedCallbackHosts.stream().allMatch(String::isBlank)) {
+            throw new IllegalArgumentException("Callback host " + host + " is not allowed");
+        }
+
+        try {
+            if (Arrays.stream(InetAddress.getAllByName(host)).anyMatch(this::isInternalAddress)) {
+                throw new IllegalArgumentException("Callback host " + host + " resolves to an internal address");
+            }
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Callback host " + host + " cannot be resolved");
+        }
+    }
+
+    private boolean isInternalAddress(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            return (bytes[0] & 0xfe) == 0xfc; // unique local fc00::/7
+        }
+        return (bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64; // carrier-grade NAT 100.64.0.0/10
+    }
+
+    // Finished jobs are kept for polling only until the retention window passes
+    private void purgeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Single-pass reader for the HOME_WIN / DRAW / AWAY_WIN / REASONING answer format, shared by every
+ * prediction path. The text is scanned once, a line at a time, without splitting, upper-casing or
+ * a BigDecimal per line, and can be fed chunk by chunk while an answer is streamed.
+ *
+ * Tolerated: any case, "Home win" / "HOME-WIN" / "HomeWin", markdown bullets and bold, "=" for ":",
+ * percent signs, decimals with "." or ",", quoted labels, several fields on one line and
+ * probabilities given as fractions. Probabilities are normalised to sum to exactly 100, and a missing one is inferred
+ * when the other two are known.
+ */
+public class PredictionResponseParser {
+
+    public enum Outcome {
+        PARSED,     // all three probabilities, already summing to 100
+        NORMALIZED, // all three, rescaled to sum to 100
+        INFERRED,   // two found, the third is the remainder
+        DEFAULTED   // not enough usable probabilities, even split used
+    }
+
+    // confidence (0-1) and citedFacts are only known for structured answers; null and empty otherwise
+    public record ParsedPrediction(BigDecimal homeWin, BigDecimal draw, BigDecimal awayWin,
+                                   String reasoning, Outcome outcome,
+                                   BigDecimal confidence, List<String> citedFacts) {
+
+        // Copy into a prediction; without reasoning the raw answer is kept so nothing is lost
+        public void applyTo(AiPrediction prediction, String fullResponse) {
+            prediction.setHomeWinProbability(homeWin);
+            prediction.setDrawProbability(draw);
+            prediction.setAwayWinProbability(awayWin);
+            prediction.setReasoning(reasoning.isBlank()
+                    ? "AI did not provide explicit reasoning. Full response: " + fullResponse
+                    : reasoning);
+            if (confidence != null) {
+                prediction.setConfidenceScore(confidence);
+            } else {
+                prediction.setConfidenceScore(outcome == Outcome.DEFAULTED ? LOW_CONFIDENCE : CONFIDENCE);
+            }
+        }
+    }
+
+    private static final BigDecimal CONFIDENCE = new BigDecimal("0.75");
+    private static final BigDecimal LOW_CONFIDENCE = new BigDecimal("0.50");
+
+    private static final int HOME = 0;
+    private static final int DRAW = 1;
+    private static final int AWAY = 2;
+    private static final int REASONING = 3;
+    private static final String[] FIELD_NAMES = {"HOME_WIN", "DRAW", "AWAY_WIN", "REASONING"};
+
+    // Probabilities are kept in hundredths of a percent: 45.5% is 4550
+    private static final long TOTAL = 10_000;
+    private static final long MAX_VALUE = 1_000_000;
+
+    private final BiConsumer<String, String> fieldListener;
+    private final StringBuilder line = new StringBuilder();
+    private final StringBuilder reasoning = new StringBuilder();
+    private final long[] values = {-1, -1, -1};
+    private boolean inReasoning;
+    private int labelEnd; // set by matchLabel
+    private boolean bareLabel; // set by matchLabel: HOME or AWAY without WIN
+
+    public PredictionResponseParser() {
+        this(null);
+    }
+
+    // fieldListener gets each probability (as a plain number) as soon as its line is complete
+    public PredictionResponseParser(BiConsumer<String, String> fieldListener) {
+        this.fieldListener = fieldListener;
+    }
+
+    public static ParsedPrediction parse(CharSequence response) {
+        PredictionResponseParser parser = new PredictionResponseParser();
+        int start = 0;
+        for (int i = 0; i < response.length(); i++) {
+            if (response.charAt(i) == '\n') {
+                parser.processLine(response, start, i);
+                start = i + 1;
+            }
+        }
+        parser.processLine(response, start, response.length());
+        return parser.finish();
+    }
+
+    // Feed the next streamed chunk; complete lines are parsed straight away
+    public void accept(CharSequence chunk) {
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (c == '\n') {
+                processLine(line, 0, line.length());
+                line.setLength(0);
+            } else {
+                line.append(c);
+            }
+        }
+    }
+
+    // Parse whatever is left and settle the probabilities
+    public ParsedPrediction finish() {
+        if (line.length() > 0) {
+            processLine(line, 0, line.length());
+            line.setLength(0);
+        }
+
+        return settle(values[HOME], values[DRAW], values[AWAY], reasoning.toString(), null, List.of());
+    }
+
+    /**
+     * Normalise, infer or default the three probabilities (hundredths of a percent, -1 when missing)
+     * and build the result. Shared with StructuredPredictionDecoder so both formats settle the same way.
+     */
+    static ParsedPrediction settle(long home, long draw, long away, String reasoning,
+                                   BigDecimal confidence, List<String> citedFacts) {
+        int found = (home >= 0 ? 1 : 0) + (draw >= 0 ? 1 : 0) + (away >= 0 ? 1 : 0);
+
+        Outcome outcome;
+        if (found == 3 && home + draw + away > 0) {
+            long sum = home + draw + away;
+            outcome = sum == TOTAL ? Outcome.PARSED : Outcome.NORMALIZED;
+            if (sum != TOTAL) {
+                home = Math.round(home * (double) TOTAL / sum);
+                draw = Math.round(draw * (double) TOTAL / sum);
+                away = TOTAL - home - draw;
+                if (away < 0) { // rounding pushed the other two over 100
+                    draw += away;
+                    away = 0;
+                }
+            }
+        } else if (found == 2 && Math.max(home, 0) + Math.max(draw, 0) + Math.max(away, 0) <= TOTAL) {
+            outcome = Outcome.INFERRED;
+            long remainder = TOTAL - Math.max(home, 0) - Math.max(draw, 0) - Math.max(away, 0);
+            if (home < 0) home = remainder;
+            else if (draw < 0) draw = remainder;
+            else away = remainder;
+        } else {
+            outcome = Outcome.DEFAULTED;
+            home = 3333;
+            draw = 3334;
+            away = 3333;
+        }
+
+        return new ParsedPrediction(BigDecimal.valueOf(home, 2), BigDecimal.valueOf(draw, 2),
+                BigDecimal.valueOf(away, 2), reasoning, outcome, confidence, citedFacts);
+    }
+
+    // ---------- Scanning ----------
+
+    private void processLine(CharSequence s, int start, int end) {
+        while (start < end && Character.isWhitespace(s.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(s.charAt(end - 1))) end--;
+        if (start == end) return;
+
+        if (inReasoning) {
+            // Inside the reasoning only a label at the start of a line counts; any other line is prose
+            int p = skipMarkup(s, start, end);
+            int label = matchLabel(s, p, end);
+            boolean field = label == REASONING
+                    ? skipSeparator(s, labelEnd, end) >= 0
+                    : label >= 0 && acceptsValue(label) && valueStart(s, labelEnd, end) >= 0;
+            if (field) {
+                scanFields(s, p, end);
+            } else {
+                appendReasoning(s, start, end);
+            }
+            return;
+        }
+        scanFields(s, start, end);
+    }
+
+    // Every "label: value" on the line; REASONING takes the rest of it
+    private void scanFields(CharSequence s, int start, int end) {
+        int p = start;
+        while (p < end) {
+            if (p == start || !Character.isLetterOrDigit(s.charAt(p - 1))) {
+                int label = matchLabel(s, p, end);
+                if (label == REASONING) {
+                    int q = skipSeparator(s, labelEnd, end);
+                    if (q >= 0) {
+                        inReasoning = true;
+                        appendReasoning(s, skipMarkup(s, q, end), end);
+                        return;
+                    }
+                } else if (label >= 0 && acceptsValue(label)) {
+                    int next = readValue(s, labelEnd, end, label);
+                    if (next >= 0) {
+                        p = next;
+                        continue;
+                    }
+                }
+            }
+            p++;
+        }
+    }
+
+    /**
+     * Whether the label just matched may set its probability: a value that is already set is never
+     * overwritten, and inside the reasoning bare HOME / AWAY are prose ("Away: 2 wins in 5").
+     */
+    private boolean acceptsValue(int label) {
+        return values[label] < 0 && !(inReasoning && bareLabel);
+    }
+
+    // HOME[_ -]WIN, HOME, DRAW, AWAY[_ -]WIN, AWAY or REASONING at p, case-insensitively; -1 if none
+    private int matchLabel(CharSequence s, int p, int end) {
+        if (matches(s, p, end, "HOME") || matches(s, p, end, "AWAY")) {
+            int label = Character.toUpperCase(s.charAt(p)) == 'H' ? HOME : AWAY;
+            int q = p + 4;
+            while (q < end && (s.charAt(q) == '_' || s.charAt(q) == ' ' || s.charAt(q) == '-')) q++;
+            if (matches(s, q, end, "WIN") && isWordEnd(s, q + 3, end)) {
+                labelEnd = q + 3;
+                bareLabel = false;
+                return label;
+            }
+            if (isWordEnd(s, p + 4, end)) {
+                labelEnd = p + 4;
+                bareLabel = true;
+                return label;
+            }
+            return -1;
+        }
+        if (matches(s, p, end, "DRAW") && isWordEnd(s, p + 4, end)) {
+            labelEnd = p + 4;
+            bareLabel = false;
+            return DRAW;
+        }
+        if (matches(s, p, end, "REASONING") && isWordEnd(s, p + 9, end)) {
+            labelEnd = p + 9;
+            return REASONING;
+        }
+        return -1;
+    }
+
+    // Where the number after a label starts (": 45%", " probability = 0.45", ":** 45.5 %"), -1 if there is none
+    private int valueStart(CharSequence s, int p, int end) {
+        p = skipSeparator(s, p, end);
+        if (p < 0) return -1;
+        while (p < end && (s.charAt(p) == ' ' || s.charAt(p) == '*' || s.charAt(p) == '"')) p++;
+        return p < end && Character.isDigit(s.charAt(p)) ? p : -1;
+    }
+
+    // Read and record the value after a label; returns the position after it, -1 if there is none
+    private int readValue(CharSequence s, int p, int end, int label) {
+        p = valueStart(s, p, end);
+        if (p < 0) return -1;
+
+        long whole = 0;
+        while (p < end && Character.isDigit(s.charAt(p))) {
+            whole = Math.min(whole * 10 + (s.charAt(p) - '0'), MAX_VALUE);
+            p++;
+        }
+
+        long hundredths = 0;
+        if (p + 1 < end && (s.charAt(p) == '.' || s.charAt(p) == ',') && Character.isDigit(s.charAt(p + 1))) {
+            p++;
+            int scale = 10;
+            boolean roundUp = false;
+            for (int d = 0; p < end && Character.isDigit(s.charAt(p)); d++, p++) {
+                if (d < 2) {
+                    hundredths += (s.charAt(p) - '0') * scale;
+                    scale /= 10;
+                } else if (d == 2) {
+                    roundUp = s.charAt(p) >= '5';
+                }
+            }
+            if (roundUp) hundredths++;
+        }
+
+        while (p < end && s.charAt(p) == ' ') p++;
+        if (p < end && s.charAt(p) == '%') p++;
+
+        values[label] = whole * 100 + hundredths;
+        if (fieldListener != null) {
+            fieldListener.accept(FIELD_NAMES[label], BigDecimal.valueOf(values[label], 2).stripTrailingZeros().toPlainString());
+        }
+        return p;
+    }
+
+    // Optional "probability"/"chance", bold markers and quotes, then ':' or '='; returns the position after it, -1 if absent
+    private int skipSeparator(CharSequence s, int p, int end) {
+        while (p < end && (s.charAt(p) == ' ' || s.charAt(p) == '*' || s.charAt(p) == '_')) p++;
+        if (matches(s, p, end, "PROBABILITY")) p += 11;
+        else if (matches(s, p, end, "CHANCE")) p += 6;
+        while (p < end && (s.charAt(p) == ' ' || s.charAt(p) == '*' || s.charAt(p) == '"')) p++;
+        if (p < end && (s.charAt(p) == ':' || s.charAt(p) == '=')) return p + 1;
+        return -1;
+    }
+
+    // Bullets, headings and bold markers before a label
+    private int skipMarkup(CharSequence s, int p, int end) {
+        while (p < end) {
+            char c = s.charAt(p);
+            if (c == '*' || c == '-' || c == '#' || c == '>' || c == '•' || c == ' ') p++;
+            else break;
+        }
+        return p;
+    }
+
+    private void appendReasoning(CharSequence s, int start, int end) {
+        if (start >= end) return;
+        if (reasoning.length() > 0) reasoning.append(' ');
+        reasoning.append(s, start, end);
+    }
+
+    // word is upper case
+    private static boolean matches(CharSequence s, int p, int end, String word) {
+        if (end - p < word.length()) return false;
+        for (int k = 0; k < word.length(); k++) {
+            if (Character.toUpperCase(s.charAt(p + k)) != word.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isWordEnd(CharSequence s, int p, int end) {
+        return p >= end || !Character.isLetterOrDigit(s.charAt(p));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Callbacks for a streamed prediction, in order: tokens (and parsed fields)
+ * while the model is generating, then exactly one of onComplete / onError.
+ */
+public interface PredictionStreamListener {
+
+    void onToken(String token);
+
+    // field is one of HOME_WIN, DRAW, AWAY_WIN, REASONING
+    void onField(String field, String value);
+
+    void onComplete(AiPrediction prediction);
+
+    void onError(Throwable error);
+
+    // Completes once the receiver has gone away: the generation is then stopped and nothing is saved
+    default Mono<Void> cancellation() {
+        return Mono.never();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.matchpredictor.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fits retrieved RAG context into a token budget, estimated with TokenEstimator.
+ * Sections are filled in order of relevance: a section that fits is kept as it is; one that does not
+ * has its documents cut to their leading lines (every stored document opens with its match, result
+ * or probabilities) and, when even that is too much, loses its lowest-ranked documents.
+ * Sections keep their original order in the prompt.
+ */
+public final class PromptBudget {
+
+    // A document cut shorter than this says nothing useful; fewer, longer documents are kept instead
+    static final int MIN_DOCUMENT_TOKENS = 40;
+
+    // A line is only cut part way if at least this much of it fits
+    private static final int MIN_PARTIAL_LINE_CHARS = 60;
+
+    private static final int CHARS_PER_TOKEN = 4; // as TokenEstimator
+
+    /**
+     * One block of retrieved context. full is its prompt text; documents are its separately
+     * retrieved parts, most relevant first, each already formatted (header excluded).
+     */
+    public record Section(String name, int relevance, String full, String header, List<String> documents) {
+
+        // A block that is kept or cut as a whole (head-to-head, form)
+        public static Section single(String name, int relevance, String text) {
+            return new Section(name, relevance, text, "", List.of(text));
+        }
+    }
+
+    // The fitted text, its estimated size and the sections that had to be cut
+    public record Fitted(String text, int tokens, List<String> trimmedSections) {
+    }
+
+    private PromptBudget() {
+    }
+
+    // relevance 0 is the most relevant; a budget of 0 or less means no limit
+    public static Fitted fit(List<Section> sections, int budgetTokens) {
+        String untrimmed = join(sections.stream().map(Section::full).toList());
+        int untrimmedTokens = TokenEstimator.estimate(untrimmed);
+        if (budgetTokens <= 0 || untrimmedTokens <= budgetTokens) {
+            return new Fitted(untrimmed, untrimmedTokens, List.of());
+        }
+
+        String[] fitted = new String[sections.size()];
+        List<String> trimmed = new ArrayList<>();
+        int remaining = budgetTokens;
+
+        List<Integer> byRelevance = new ArrayList<>();
+        for (int i = 0; i < sections.size(); i++) byRelevance.add(i);
+        byRelevance.sort(Comparator.comparingInt(i -> sections.get(i).relevance()));
+
+        for (int i : byRelevance) {
+            Section section = sections.get(i);
+            int fullTokens = TokenEstimator.estimate(section.full());
+            if (fullTokens <= remaining) {
+                fitted[i] = section.full();
+                remaining -= fullTokens;
+                continue;
+            }
+
+            trimmed.add(section.name());
+            int available = remaining - TokenEstimator.estimate(section.header());
+            int keep = Math.min(section.documents().size(), available / MIN_DOCUMENT_TOKENS);
+            if (keep <= 0) {
+                fitted[i] = "";
+                continue;
+            }
+
+            StringBuilder text = new StringBuilder(section.header());
+            int perDocument = available / keep;
+            for (int d = 0; d < keep; d++) {
+                text.append(shorten(section.documents().get(d), perDocument));
+            }
+            fitted[i] = text.toString();
+            remaining -= TokenEstimator.estimate(fitted[i]);
+        }
+
+        String text = join(List.of(fitted));
+        return new Fitted(text, TokenEstimator.estimate(text), trimmed);
+    }
+
+    /**
+     * The leading lines of a document that fit in maxTokens; the first line that does not fit is cut
+     * at a sentence or word boundary if enough of it fits. Trailing line breaks are kept.
+     */
+    static String shorten(String document, int maxTokens) {
+        int maxChars = maxTokens * CHARS_PER_TOKEN;
+        if (document.length() <= maxChars) return document;
+
+        int contentEnd = document.length();
+        while (contentEnd > 0 && Character.isWhitespace(document.charAt(contentEnd - 1))) contentEnd--;
+        String trailing = document.substring(contentEnd);
+        int limit = maxChars - trailing.length();
+
+        StringBuilder shortened = new StringBuilder();
+        int start = 0;
+        while (start < contentEnd) {
+            int end = document.indexOf('\n', start);
+            if (end < 0 || end > contentEnd) end = contentEnd;
+            int separator = shortened.length() > 0 ? 1 : 0;
+
+            if (shortened.length() + separator + (end - start) <= limit) {
+                if (separator > 0) shortened.append('\n');
+                shortened.append(document, start, end);
+            } else {
+                int room = limit - shortened.length() - separator - 3; // for "..."
+                if (room >= MIN_PARTIAL_LINE_CHARS) {
+                    if (separator > 0) shortened.append('\n');
+                    shortened.append(cut(document, start, start + room));
+                }
+                break;
+            }
+            start = end + 1;
+        }
+        return shortened.append(trailing).toString();
+    }
+
+    // s[start, limit) up to its last whole sentence, else its last whole word followed by "..."
+    private static String cut(String s, int start, int limit) {
+        int word = -1;
+        for (int i = limit; i > start; i--) {
+            char c = s.charAt(i - 1);
+            if ((c == '.' || c == '!' || c == '?') && s.charAt(i) == ' ') return s.substring(start, i);
+            if (word < 0 && s.charAt(i) == ' ') word = i;
+        }
+        return s.substring(start, word > start ? word : limit) + "...";
+    }
+
+    private static String join(List<String> parts) {
+        return String.join("", parts);
+    }
+}
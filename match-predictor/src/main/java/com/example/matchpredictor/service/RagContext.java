@@ -0,0 +1,99 @@
+package com.example.matchpredictor.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Context retrieved for one match, kept per source so it can be
+ * fingerprinted for the prediction cache before being flattened into the prompt.
+ */
+public class RagContext {
+
+    private String historicalContext = "";
+    private String headToHead = "";
+    private String teamForm = "";
+    private String similarPredictions = "";
+    private List<String> similarPredictionDocuments = List.of();
+    private List<String> missingSources = List.of();
+
+    private static final String HISTORY_HEADER = "=== HISTORICAL CONTEXT FROM CHROMADB ===\n\n";
+    static final String SIMILAR_PREDICTIONS_HEADER = "\n=== SIMILAR PAST PREDICTIONS ===\n";
+
+    // Prompt text, in the order the sources are retrieved
+    public String toPromptText() {
+        return historicalContext + headToHead + teamForm + similarPredictions;
+    }
+
+    /**
+     * Prompt text cut down to budgetTokens (see PromptBudget). Head-to-head and form are the most
+     * relevant and kept first, then the ChromaDB match history, then similar past predictions,
+     * which are the longest (each carries the earlier model's full reasoning) and matter least.
+     */
+    public PromptBudget.Fitted toPromptText(int budgetTokens) {
+        return PromptBudget.fit(List.of(
+                new PromptBudget.Section("chroma-history", 2, historicalContext, HISTORY_HEADER, historyDocuments()),
+                PromptBudget.Section.single("head-to-head", 0, headToHead),
+                PromptBudget.Section.single("form", 1, teamForm),
+                new PromptBudget.Section("similar-predictions", 3, similarPredictions,
+                        SIMILAR_PREDICTIONS_HEADER, similarPredictionDocuments)
+        ), budgetTokens);
+    }
+
+    // The match documents in the ChromaDB block, most similar first, each with its blank line
+    private List<String> historyDocuments() {
+        List<String> documents = new ArrayList<>();
+        String body = historicalContext.startsWith(HISTORY_HEADER)
+                ? historicalContext.substring(HISTORY_HEADER.length())
+                : historicalContext;
+        for (String document : body.split("\n{2,}")) {
+            if (!document.isBlank()) documents.add(document.strip() + "\n\n");
+        }
+        return documents;
+    }
+
+    /**
+     * SHA-256 over the factual sections (history, head-to-head, form).
+     * Similar past predictions are left out: every new prediction is stored back
+     * into that search, so including it would make every cache key unique.
+     */
+    public String fingerprint() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(historicalContext.getBytes(StandardCharsets.UTF_8));
+            digest.update(headToHead.getBytes(StandardCharsets.UTF_8));
+            digest.update(teamForm.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // False when a retrieval source timed out or failed and was left out
+    public boolean isComplete() {
+        return missingSources.isEmpty();
+    }
+
+    // Getters and Setters
+    public String getHistoricalContext() { return historicalContext; }
+    public void setHistoricalContext(String historicalContext) { this.historicalContext = historicalContext; }
+
+    public String getHeadToHead() { return headToHead; }
+    public void setHeadToHead(String headToHead) { this.headToHead = headToHead; }
+
+    public String getTeamForm() { return teamForm; }
+    public void setTeamForm(String teamForm) { this.teamForm = teamForm; }
+
+    public String getSimilarPredictions() { return similarPredictions; }
+    public void setSimilarPredictions(String similarPredictions) { this.similarPredictions = similarPredictions; }
+
+    // The numbered entries of similarPredictions, in rank order, so they can be dropped one by one
+    public List<String> getSimilarPredictionDocuments() { return similarPredictionDocuments; }
+    public void setSimilarPredictionDocuments(List<String> similarPredictionDocuments) { this.similarPredictionDocuments = similarPredictionDocuments; }
+
+    public List<String> getMissingSources() { return missingSources; }
+    public void setMissingSources(List<String> missingSources) { this.missingSources = missingSources; }
+}
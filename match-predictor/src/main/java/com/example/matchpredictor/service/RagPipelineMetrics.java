@@ -0,0 +1,155 @@
+package com.example.matchpredictor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timings and sizes for the RAG prediction pipeline.
+ * Each stage runs inside a Micrometer Observation, which records a timer
+ * (prediction.rag.stage{stage=...}) and, with the tracing bridge, a span that is a child of
+ * the prediction's span, so one trace shows where a prediction's latency went.
+ * Prompt and LLM sizes are recorded as distribution summaries next to them.
+ */
+@Component
+public class RagPipelineMetrics {
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Top-level observation for one prediction request (generate, stream)
+    public Observation prediction(String mode) {
+        return Observation.createNotStarted("prediction.rag", observationRegistry)
+                .contextualName("rag prediction " + mode)
+                .lowCardinalityKeyValue("mode", mode);
+    }
+
+    // Run one stage (prompt, parse, db.save, chroma.store, ...) as a child of the current observation
+    public <T> T stage(String stage, Supplier<T> work) {
+        return Observation.createNotStarted("prediction.rag.stage", observationRegistry)
+                .contextualName("rag " + stage)
+                .lowCardinalityKeyValue("stage", stage)
+                .observe(work);
+    }
+
+    public void runStage(String stage, Runnable work) {
+        stage(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Retrieval from one source. Sources run on the retrieval executor, where the caller's
+     * observation is not current, so the parent is passed in explicitly.
+     */
+    public <T> T retrieval(String source, Observation parent, Supplier<T> work) {
+        return Observation.createNotStarted("prediction.rag.retrieval", observationRegistry)
+                .contextualName("rag retrieve " + source)
+                .lowCardinalityKeyValue("source", source)
+                .parentObservation(parent)
+                .observe(work);
+    }
+
+    public Observation currentObservation() {
+        return observationRegistry.getCurrentObservation();
+    }
+
+    // A source that timed out or failed and was left out of the prompt
+    public void retrievalSkipped(String source) {
+        Counter.builder("prediction.rag.retrieval.skipped")
+                .description("RAG sources left out of the prompt because they timed out or failed")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordPrompt(String prompt) {
+        DistributionSummary.builder("prediction.rag.prompt.size")
+                .description("Size of the augmented prompt sent to the LLM")
+                .baseUnit("chars")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(prompt.length());
+        DistributionSummary.builder("prediction.rag.prompt.tokens")
+                .description("Estimated prompt tokens (about four characters per token)")
+                .baseUnit("tokens")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(TokenEstimator.estimate(prompt));
+    }
+
+    // A retrieved-context section cut down or dropped to keep the prompt within its token budget
+    public void recordContextTrimmed(String section) {
+        Counter.builder("prediction.rag.context.trimmed")
+                .description("Prompts whose retrieved context section was shortened to fit the token budget")
+                .tag("section", section)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // One finished LLM answer: its size and the generation throughput
+    public void recordGeneration(String model, String mode, int tokens, long elapsedNanos) {
+        DistributionSummary.builder("llm.response.tokens")
+                .description("Tokens in the LLM answer")
+                .baseUnit("tokens")
+                .tag("model", model)
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(tokens);
+        if (elapsedNanos > 0 && tokens > 0) {
+            DistributionSummary.builder("llm.tokens.per.second")
+                    .description("LLM generation throughput")
+                    .baseUnit("tokens/s")
+                    .tag("model", model)
+                    .tag("mode", mode)
+                    .register(meterRegistry)
+                    .record(tokens * 1_000_000_000.0 / elapsedNanos);
+        }
+    }
+
+    // How an LLM answer parsed; anything but PARSED means the model drifted from the format
+    public void recordParse(String source, PredictionResponseParser.Outcome outcome) {
+        Counter.builder("prediction.parse")
+                .description("LLM answers by parse outcome (normalized, inferred or defaulted probabilities)")
+                .tag("source", source)
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // One structured (JSON) generation: valid first time, repaired by a retry, or given up on and read as text
+    public void recordStructuredAnswer(String result, int attempts) {
+        Counter.builder("prediction.structured")
+                .description("Structured LLM answers by result (valid, repaired, fallback)")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+        DistributionSummary.builder("prediction.structured.attempts")
+                .description("LLM calls needed for one schema-valid structured answer")
+                .tag("result", result)
+                .register(meterRegistry)
+                .record(attempts);
+    }
+
+    // Streaming only: how long the user waited before the first token arrived
+    public void recordFirstToken(String model, long elapsedNanos) {
+        Timer.builder("llm.first.token")
+                .description("Time from sending a streaming prompt to the first token")
+                .tag("model", model)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+
+/**
+ * Incremental reader for the HOME_WIN / DRAW / AWAY_WIN / REASONING format.
+ * Tokens go through the shared PredictionResponseParser as they arrive; probability lines are
+ * reported to the listener as soon as they are complete, the reasoning once the stream has finished.
+ */
+public class StreamingPredictionParser {
+
+    private final PredictionStreamListener listener;
+    private final StringBuilder fullResponse = new StringBuilder();
+    private final PredictionResponseParser parser;
+    private PredictionResponseParser.ParsedPrediction result;
+
+    public StreamingPredictionParser(PredictionStreamListener listener) {
+        this.listener = listener;
+        this.parser = new PredictionResponseParser(listener::onField);
+    }
+
+    public void accept(String token) {
+        fullResponse.append(token);
+        parser.accept(token);
+    }
+
+    // Flush the last partial line and return the complete response text
+    public String finish() {
+        result = parser.finish();
+        if (!result.reasoning().isEmpty()) {
+            listener.onField("REASONING", result.reasoning());
+        }
+        return fullResponse.toString();
+    }
+
+    // The parsed answer, available once finish() has been called
+    public PredictionResponseParser.ParsedPrediction getResult() {
+        return result;
+    }
+
+    // Report the fields of an already stored prediction (cache hits have no tokens to stream)
+    public static void replay(AiPrediction prediction, PredictionStreamListener listener) {
+        listener.onField("HOME_WIN", prediction.getHomeWinProbability().toPlainString());
+        listener.onField("DRAW", prediction.getDrawProbability().toPlainString());
+        listener.onField("AWAY_WIN", prediction.getAwayWinProbability().toPlainString());
+        listener.onField("REASONING", prediction.getReasoning());
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.matchpredictor.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the JSON answer asked for with Ollama's format=json straight into a ParsedPrediction,
+ * token by token with Jackson's streaming parser (no tree, no intermediate map).
+ *
+ * Small slips are repaired on the way: text or a code fence around the object, trailing commas,
+ * single quotes, unquoted or camelCase keys, percentages as strings, fractions instead of
+ * percentages and a 0-100 confidence. Anything that cannot be repaired (not JSON, a missing
+ * probability or reasoning, out-of-range values, an answer cut off mid-object) is a
+ * SchemaViolation, whose message is fed back to the model when the answer is retried.
+ */
+public final class StructuredPredictionDecoder {
+
+    // Sent with the prompt; Ollama's format=json guarantees JSON, not these fields
+    public static final String SCHEMA_INSTRUCTIONS = """
+            Respond with a single JSON object and nothing else, in exactly this shape:
+            {
+              "home_win": <home win probability, 0-100>,
+              "draw": <draw probability, 0-100>,
+              "away_win": <away win probability, 0-100>,
+              "cited_facts": [<each fact from the retrieved context the prediction relies on, as a string>],
+              "reasoning": "<analysis citing the retrieved data points>",
+              "confidence": <0.0-1.0, how strongly the retrieved data supports this prediction>
+            }
+            The three probabilities must sum to exactly 100.""";
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .enable(JsonReadFeature.ALLOW_LEADING_PLUS_SIGN_FOR_NUMBERS)
+            .build();
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    /** The answer does not match the schema; the message says why, in words the model can act on. */
+    public static class SchemaViolation extends RuntimeException {
+        public SchemaViolation(String message) {
+            super(message);
+        }
+    }
+
+    private StructuredPredictionDecoder() {
+    }
+
+    public static PredictionResponseParser.ParsedPrediction decode(String response) {
+        int start = response.indexOf('{');
+        if (start < 0) {
+            throw new SchemaViolation("the answer is not a JSON object");
+        }
+
+        BigDecimal home = null;
+        BigDecimal draw = null;
+        BigDecimal away = null;
+        BigDecimal confidence = null;
+        String reasoning = null;
+        List<String> citedFacts = new ArrayList<>();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(start == 0 ? response : response.substring(start))) {
+            parser.nextToken(); // the opening brace
+            // Stop at the root object's closing brace; whatever the model wrote after it is ignored
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = fieldKey(parser.currentName());
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "homewin", "home" -> home = probability(parser, "home_win");
+                    case "draw" -> draw = probability(parser, "draw");
+                    case "awaywin", "away" -> away = probability(parser, "away_win");
+                    case "confidence" -> confidence = number(parser, "confidence");
+                    case "reasoning" -> reasoning = text(parser, value);
+                    case "citedfacts", "facts" -> citedFacts.addAll(strings(parser, value));
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (JsonEOFException e) {
+            throw new SchemaViolation("the JSON object is incomplete, the answer was cut off");
+        } catch (JsonProcessingException e) {
+            throw new SchemaViolation("the answer is not valid JSON (" + e.getOriginalMessage() + ")");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // reading a String, cannot happen
+        }
+
+        if (home == null) throw new SchemaViolation("\"home_win\" is missing");
+        if (draw == null) throw new SchemaViolation("\"draw\" is missing");
+        if (away == null) throw new SchemaViolation("\"away_win\" is missing");
+        if (reasoning == null) throw new SchemaViolation("\"reasoning\" is missing or empty");
+        if (home.signum() + draw.signum() + away.signum() == 0) {
+            throw new SchemaViolation("all three probabilities are 0");
+        }
+
+        // All three at most 1: fractions rather than percentages
+        if (home.compareTo(BigDecimal.ONE) <= 0 && draw.compareTo(BigDecimal.ONE) <= 0 && away.compareTo(BigDecimal.ONE) <= 0) {
+            home = home.movePointRight(2);
+            draw = draw.movePointRight(2);
+            away = away.movePointRight(2);
+        }
+
+        return PredictionResponseParser.settle(hundredths(home), hundredths(draw), hundredths(away),
+                reasoning, confidence(confidence), List.copyOf(citedFacts));
+    }
+
+    // "home_win", "homeWin", "Home Win" and "HOME-WIN" all become "homewin"
+    private static String fieldKey(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) key.append(Character.toLowerCase(c));
+        }
+        return key.toString();
+    }
+
+    private static BigDecimal probability(JsonParser parser, String field) throws IOException {
+        BigDecimal value = number(parser, field);
+        if (value.signum() < 0 || value.compareTo(HUNDRED) > 0) {
+            throw new SchemaViolation("\"" + field + "\" must be between 0 and 100, was " + value.toPlainString());
+        }
+        return value;
+    }
+
+    // A JSON number, or a string such as "45%" or "45.5"
+    private static BigDecimal number(JsonParser parser, String field) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDecimalValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().strip();
+            if (text.endsWith("%")) text = text.substring(0, text.length() - 1).strip();
+            try {
+                return new BigDecimal(text.replace(',', '.'));
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+        }
+        throw new SchemaViolation("\"" + field + "\" must be a number");
+    }
+
+    // A string, or a list of strings joined into one (models sometimes give the reasoning as bullet points)
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        List<String> parts = strings(parser, value);
+        return parts.isEmpty() ? null : String.join(" ", parts);
+    }
+
+    // The non-blank strings of a list, or a single string as a one-element list
+    private static List<String> strings(JsonParser parser, JsonToken value) throws IOException {
+        List<String> strings = new ArrayList<>();
+        if (value == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                addString(parser, strings);
+            }
+        } else {
+            addString(parser, strings);
+        }
+        return strings;
+    }
+
+    private static void addString(JsonParser parser, List<String> strings) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            String text = parser.getText().strip();
+            if (!text.isEmpty()) strings.add(text);
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private static long hundredths(BigDecimal percentage) {
+        return percentage.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    // 0-1, or 0-100 read as a percentage; null when the model left it out
+    private static BigDecimal confidence(BigDecimal value) {
+        if (value == null) return null;
+        if (value.compareTo(BigDecimal.ONE) > 0 && value.compareTo(HUNDRED) <= 0) {
+            value = value.movePointLeft(2);
+        }
+        if (value.signum() < 0 || value.compareTo(BigDecimal.ONE) > 0) {
+            throw new SchemaViolation("\"confidence\" must be between 0.0 and 1.0, was " + value.toPlainString());
+        }
+        return value.setScale(2, RoundingMode.HALF_UP);
+    }
+}
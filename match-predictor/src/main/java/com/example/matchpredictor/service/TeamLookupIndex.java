@@ -0,0 +1,285 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.Team;
+import com.example.matchpredictor.repository.TeamRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * In-memory index of team names for the chat endpoints.
+ * Names and aliases are normalised (lower case, no accents or punctuation) and compiled
+ * into an Aho-Corasick automaton, so every team mentioned in a message is found in one
+ * pass over it, without a database query. Rebuilt by TeamService whenever teams change.
+ */
+@Component
+public class TeamLookupIndex {
+
+    // Common short forms; an alias is used only if its target team exists
+    private static final Map<String, String> DEFAULT_ALIASES = Map.ofEntries(
+            Map.entry("man utd", "manchester united"),
+            Map.entry("man united", "manchester united"),
+            Map.entry("man u", "manchester united"),
+            Map.entry("man city", "manchester city"),
+            Map.entry("spurs", "tottenham hotspur"),
+            Map.entry("barca", "barcelona"),
+            Map.entry("psg", "paris saint germain"),
+            Map.entry("bayern", "bayern munich"),
+            Map.entry("juve", "juventus"),
+            Map.entry("atleti", "atletico madrid"),
+            Map.entry("inter", "inter milan"),
+            Map.entry("wolves", "wolverhampton wanderers"),
+            Map.entry("villa", "aston villa")
+    );
+
+    // Club-type words that are not part of what people type ("Arsenal FC" -> "arsenal")
+    private static final List<String> CLUB_WORDS = List.of("fc", "cf", "afc", "sc", "ac", "club");
+
+    // Words shared by clubs everywhere, or common in ordinary sentences: never an alias on their own
+    private static final Set<String> GENERIC_WORDS = Set.of(
+            "real", "city", "united", "town", "county", "athletic", "atletico", "sporting", "sport",
+            "racing", "rovers", "rangers", "wanderers", "albion", "borussia", "dynamo", "olympique",
+            "deportivo", "union", "saint", "north", "south", "east", "west", "young", "boys");
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    // Extra aliases, "Alias=Team Name;Alias=Team Name"
+    @Value("${chat.team-aliases:}")
+    private String extraAliases;
+
+    private volatile Snapshot snapshot;
+
+    // ---------- Lookups ----------
+
+    // Every team mentioned in the text, in order of appearance (longest name wins on overlap)
+    public List<Team> findMentions(String text) {
+        Snapshot current = snapshot();
+        List<Team> teams = new ArrayList<>();
+        for (int teamId : current.matcher.findAll(normalize(text))) {
+            Team team = current.byId.get(teamId);
+            if (!teams.contains(team)) {
+                teams.add(team);
+            }
+        }
+        return teams;
+    }
+
+    // The team a name refers to: exact name or alias first, otherwise the first team mentioned in it
+    public Optional<Team> resolve(String name) {
+        Snapshot current = snapshot();
+        String normalized = normalize(name);
+        Integer teamId = current.exact.get(normalized);
+        if (teamId != null) {
+            return Optional.of(current.byId.get(teamId));
+        }
+        List<Integer> mentions = current.matcher.findAll(normalized);
+        return mentions.isEmpty() ? Optional.empty() : Optional.of(current.byId.get(mentions.get(0)));
+    }
+
+    // All teams ordered by name
+    public List<Team> getTeams() {
+        return snapshot().teams;
+    }
+
+    // Reload from the database; called after any team is created, updated or deleted
+    public synchronized void refresh() {
+        snapshot = build(teamRepository.findAllOrderByName());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    // ---------- Building ----------
+
+    private Snapshot build(List<Team> teams) {
+        Map<Integer, Team> byId = new HashMap<>();
+        Map<String, Integer> exact = new LinkedHashMap<>();
+        Map<String, Integer> byName = new HashMap<>();
+
+        for (Team team : teams) {
+            byId.put(team.getId(), team);
+            String name = normalize(team.getName());
+            exact.putIfAbsent(name, team.getId());
+            byName.putIfAbsent(name, team.getId());
+            String shortName = stripClubWords(name);
+            if (!shortName.isEmpty()) {
+                exact.putIfAbsent(shortName, team.getId());
+            }
+        }
+
+        // Aliases (only for teams that exist)
+        Map<String, String> aliases = new LinkedHashMap<>(DEFAULT_ALIASES);
+        aliases.putAll(parseAliases(extraAliases));
+        aliases.forEach((alias, target) -> {
+            Integer teamId = byName.get(normalize(target));
+            if (teamId != null) {
+                exact.putIfAbsent(normalize(alias), teamId);
+            }
+        });
+
+        // Distinctive single words ("madrid" for Real Madrid) when only one team has them and they are not generic
+        Map<String, Integer> wordOwner = new HashMap<>();
+        Map<String, Integer> wordCount = new HashMap<>();
+        for (Team team : teams) {
+            for (String word : normalize(team.getName()).split(" ")) {
+                if (word.length() < 4 || CLUB_WORDS.contains(word) || GENERIC_WORDS.contains(word)) continue;
+                wordOwner.put(word, team.getId());
+                wordCount.merge(word, 1, Integer::sum);
+            }
+        }
+        wordCount.forEach((word, count) -> {
+            if (count == 1) exact.putIfAbsent(word, wordOwner.get(word));
+        });
+
+        return new Snapshot(List.copyOf(teams), byId, exact, new Matcher(exact));
+    }
+
+    private Map<String, String> parseAliases(String text) {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        if (text == null || text.isBlank()) return aliases;
+        for (String pair : text.split(";")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length == 2 && !parts[0].isBlank() && !parts[1].isBlank()) {
+                aliases.put(parts[0].trim(), parts[1].trim());
+            }
+        }
+        return aliases;
+    }
+
+    private String stripClubWords(String name) {
+        List<String> words = new ArrayList<>(List.of(name.split(" ")));
+        words.removeIf(CLUB_WORDS::contains);
+        return String.join(" ", words);
+    }
+
+    // "Atlético Madrid!" -> "atletico madrid"
+    static String normalize(String text) {
+        if (text == null) return "";
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+    }
+
+    private record Snapshot(List<Team> teams, Map<Integer, Team> byId,
+                            Map<String, Integer> exact, Matcher matcher) {
+    }
+
+    /**
+     * Aho-Corasick automaton over normalised names. Patterns and text are padded with
+     * spaces so only whole words match ("inter" does not match inside "internazionale").
+     */
+    private static final class Matcher {
+
+        private final List<Map<Character, Integer>> next = new ArrayList<>();
+        private final List<Integer> fail = new ArrayList<>();
+        private final List<int[]> output = new ArrayList<>();      // {teamId, length} of the longest pattern ending here
+        private final List<Integer> outputLink = new ArrayList<>(); // nearest suffix state with an output
+
+        Matcher(Map<String, Integer> patterns) {
+            newState();
+            patterns.forEach((pattern, teamId) -> add(" " + pattern + " ", teamId));
+            link();
+        }
+
+        private int newState() {
+            next.add(new HashMap<>());
+            fail.add(0);
+            output.add(null);
+            outputLink.add(-1);
+            return next.size() - 1;
+        }
+
+        private void add(String pattern, int teamId) {
+            int state = 0;
+            for (char c : pattern.toCharArray()) {
+                Integer target = next.get(state).get(c);
+                if (target == null) {
+                    target = newState();
+                    next.get(state).put(c, target);
+                }
+                state = target;
+            }
+            if (output.get(state) == null) {
+                output.set(state, new int[]{teamId, pattern.length()});
+            }
+        }
+
+        // Breadth-first failure links
+        private void link() {
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int child : next.get(0).values()) {
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : next.get(state).entrySet()) {
+                    int child = edge.getValue();
+                    int f = fail.get(state);
+                    while (f > 0 && !next.get(f).containsKey(edge.getKey())) {
+                        f = fail.get(f);
+                    }
+                    Integer target = next.get(f).get(edge.getKey());
+                    int childFail = target != null && target != child ? target : 0;
+                    fail.set(child, childFail);
+                    outputLink.set(child, output.get(childFail) != null ? childFail : outputLink.get(childFail));
+                    queue.add(child);
+                }
+            }
+        }
+
+        // Team ids found in the text, leftmost first, longest match wins where matches overlap
+        List<Integer> findAll(String normalizedText) {
+            String text = " " + normalizedText + " ";
+            List<int[]> hits = new ArrayList<>(); // {start, end, teamId}, without the padding spaces
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                while (state > 0 && !next.get(state).containsKey(c)) {
+                    state = fail.get(state);
+                }
+                state = next.get(state).getOrDefault(c, 0);
+
+                for (int s = output.get(state) != null ? state : outputLink.get(state); s > 0; s = outputLink.get(s)) {
+                    int[] match = output.get(s);
+                    int end = i;                  // trailing space
+                    int start = i - match[1] + 2; // after the leading space
+                    hits.add(new int[]{start, end, match[0]});
+                }
+            }
+
+            hits.sort(Comparator.<int[]>comparingInt(h -> h[0]).thenComparingInt(h -> -(h[1] - h[0])));
+            List<Integer> teamIds = new ArrayList<>();
+            int covered = -1;
+            for (int[] hit : hits) {
+                if (hit[0] >= covered) {
+                    teamIds.add(hit[2]);
+                    covered = hit[1];
+                }
+            }
+            return teamIds;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.matchpredictor.service;
+import com.example.matchpredictor.dto.CursorPage;
 import com.example.matchpredictor.entity.Team;
 import com.example.matchpredictor.repository.TeamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,11 +15,28 @@ public class TeamService {
     @Autowired
     private TeamRepository teamRepository;
 
+    @Autowired
+    private TeamLookupIndex teamLookupIndex;
+
     //Get all teams
     public List<Team> getAllTeams(){
         return teamRepository.findAllOrderByName();
     }
 
+    // One page of teams by name; cursor is the nextCursor of the previous page (null for the first)
+    public CursorPage<Team> getTeamsPage(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        String afterName = "";
+        Integer afterId = 0;
+        if (cursor != null) {
+            String[] keys = CursorPage.decodeCursor(cursor, 2);
+            afterId = Integer.valueOf(keys[0]);
+            afterName = keys[1];
+        }
+        List<Team> rows = teamRepository.findPageAfter(afterName, afterId, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, t -> CursorPage.encodeCursor(t.getId(), t.getName()));
+    }
+
     //Get team by ID
     public Optional<Team> getTeamById(Integer id) {
         return teamRepository.findById(id);
@@ -38,7 +57,9 @@ public class TeamService {
         if (teamRepository.existsByName(team.getName())) {
             throw new RuntimeException("Team with name '" + team.getName() + "' already exists");
         }
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        teamLookupIndex.refresh();
+        return saved;
     }
 
     // Update team
@@ -51,7 +72,9 @@ public class TeamService {
         team.setLogo(teamDetails.getLogo());
         team.setFoundedYear(teamDetails.getFoundedYear());
 
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        teamLookupIndex.refresh();
+        return saved;
     }
 
     // Delete team
@@ -60,6 +83,7 @@ public class TeamService {
             throw new RuntimeException("Team not found with id: " + id);
         }
         teamRepository.deleteById(id);
+        teamLookupIndex.refresh();
     }
 
     // Get team count
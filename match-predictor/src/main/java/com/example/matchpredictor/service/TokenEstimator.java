@@ -0,0 +1,19 @@
+package com.example.matchpredictor.service;
+
+/**
+ * Rough token count for prompts and answers, without loading the model's tokenizer.
+ * Llama-family tokenizers average about four characters of English text per token,
+ * which is close enough for sizing prompts and for throughput metrics.
+ */
+public final class TokenEstimator {
+
+    private static final double CHARS_PER_TOKEN = 4.0;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        return (int) Math.ceil(text.length() / CHARS_PER_TOKEN);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.matchpredictor.service;
+
+import java.util.Map;
+
+/**
+ * One entry of a vector store collection: id, text to embed and string metadata.
+ */
+public record VectorDocument(String id, String text, Map<String, String> metadata) {
+}
@@ -0,0 +1,26 @@
+package com.example.matchpredictor.service;
+
+import java.util.List;
+
+/**
+ * Minimal vector store used for RAG retrieval.
+ * Collections are addressed by name and created on first use.
+ * Implementations throw RuntimeException on failure; callers decide how to degrade.
+ */
+public interface VectorStore {
+
+    boolean isAvailable();
+
+    // Short identifier ("chroma", "embedded") - sync watermarks are kept per store
+    String getName();
+
+    // Insert or replace documents by id
+    void upsert(String collection, List<VectorDocument> documents);
+
+    // One result list per query text, nearest first
+    List<List<String>> query(String collection, List<String> queryTexts, int limit);
+
+    int count(String collection);
+
+    void delete(String collection, List<String> ids);
+}
@@ -0,0 +1,145 @@
+package com.example.matchpredictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.entity.Match;
+import com.example.matchpredictor.entity.VectorSyncState;
+import com.example.matchpredictor.repository.AiPredictionRepository;
+import com.example.matchpredictor.repository.MatchRepository;
+import com.example.matchpredictor.repository.VectorSyncStateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Keeps the vector store in step with PostgreSQL.
+ * Each collection has a high-water mark in vector_sync_state; a sync only pages through
+ * rows past that mark and upserts them in batches, so a restart does not re-embed
+ * unchanged documents. Deleted matches are removed by MatchService as they happen.
+ */
+@Service
+public class VectorSyncService {
+
+    @Autowired
+    private ChromaDbService chromaDbService;
+
+    @Autowired
+    private AiPredictionRepository aiPredictionRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private VectorSyncStateRepository syncStateRepository;
+
+    @Autowired
+    private VectorStore vectorStore;
+
+    @Autowired
+    private PredictionAnalyticsService predictionAnalyticsService;
+
+    @Autowired
+    @Qualifier("vectorSyncExecutor")
+    private ExecutorService vectorSyncExecutor;
+
+    @Value("${vectorstore.sync.enabled:true}")
+    private boolean enabled;
+
+    @Value("${vectorstore.sync.batch-size:100}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSync() {
+        if (!enabled || !chromaDbService.isConnected()) return;
+
+        vectorSyncExecutor.execute(this::sync);
+    }
+
+    // Picks up results entered since the last run (finished matches are not pushed on update)
+    @Scheduled(fixedDelayString = "${vectorstore.sync.interval-ms:300000}",
+            initialDelayString = "${vectorstore.sync.interval-ms:300000}")
+    public void scheduledSync() {
+        if (!enabled || !chromaDbService.isConnected()) return;
+
+        sync();
+    }
+
+    public synchronized void sync() {
+        long start = System.currentTimeMillis();
+        try {
+            int predictions = syncPredictions();
+            int matches = syncMatchHistory();
+            if (predictions > 0 || matches > 0) {
+                predictionAnalyticsService.publish(); // the store may have been rebuilt without it
+            }
+
+            System.out.println("✅ Vector sync complete: " + predictions + " predictions, "
+                    + matches + " finished matches in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.out.println("⚠️ Vector sync failed: " + e.getMessage());
+        }
+    }
+
+    // Predictions are never edited after insert, so the highest synced id is enough
+    private int syncPredictions() {
+        VectorSyncState state = loadState(ChromaDbService.PREDICTIONS);
+
+        int total = 0;
+        List<AiPrediction> page;
+        do {
+            page = aiPredictionRepository.findPageAfterId(state.getLastId(), PageRequest.of(0, batchSize));
+            if (page.isEmpty()) break;
+
+            chromaDbService.storePredictions(page);
+            total += page.size();
+
+            // Saved per page, so an interrupted sync resumes where it stopped
+            state.setLastId(page.get(page.size() - 1).getId());
+            state.setLastSyncedAt(LocalDateTime.now());
+            syncStateRepository.save(state);
+        } while (page.size() == batchSize);
+        return total;
+    }
+
+    // Results can be corrected later, so finished matches are tracked by updated_at
+    private int syncMatchHistory() {
+        VectorSyncState state = loadState(ChromaDbService.MATCH_HISTORY);
+        LocalDateTime since = state.getLastSyncedAt();
+        LocalDateTime syncStart = LocalDateTime.now();
+
+        int total = 0;
+        int afterId = 0;
+        List<Match> page;
+        do {
+            page = since == null
+                    ? matchRepository.findPageByStatusAfterId("FINISHED", afterId, PageRequest.of(0, batchSize))
+                    : matchRepository.findChangedPageByStatusAfterId("FINISHED", since, afterId, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) break;
+
+            chromaDbService.storeMatchHistories(page);
+            total += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == batchSize);
+
+        // Only moved forward once the whole pass succeeded; rows changed during the pass are picked up next time
+        state.setLastSyncedAt(syncStart);
+        syncStateRepository.save(state);
+        return total;
+    }
+
+    // Watermarks are per store, and reset if the store lost its data (new Chroma volume, deleted snapshot)
+    private VectorSyncState loadState(String collection) {
+        String key = vectorStore.getName() + ":" + collection;
+        return syncStateRepository.findById(key)
+                .filter(state -> vectorStore.count(collection) > 0)
+                .orElseGet(() -> new VectorSyncState(key));
+    }
+}
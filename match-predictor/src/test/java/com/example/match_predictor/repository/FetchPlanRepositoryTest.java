@@ -0,0 +1,161 @@
+package com.example.match_predictor.repository;
+
+import com.example.matchpredictor.MatchPredictorApplication;
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.entity.Match;
+import com.example.matchpredictor.entity.Team;
+import com.example.matchpredictor.entity.User;
+import com.example.matchpredictor.entity.UserPrediction;
+import com.example.matchpredictor.repository.AiPredictionRepository;
+import com.example.matchpredictor.repository.MatchRepository;
+import com.example.matchpredictor.repository.UserPredictionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teams, matches and users are LAZY on the entities; these tests pin the fetch plans
+ * declared on the repositories by counting the SQL statements Hibernate prepares.
+ * Each read must stay at one statement however many rows it returns.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@ContextConfiguration(classes = MatchPredictorApplication.class)
+public class FetchPlanRepositoryTest {
+
+    private static final int MATCHES = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private AiPredictionRepository aiPredictionRepository;
+
+    @Autowired
+    private UserPredictionRepository userPredictionRepository;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("fetchplan", "secret", "fetchplan@example.com", "USER"));
+
+        // Every match has its own pair of teams, so a missing fetch shows up as extra statements
+        for (int i = 0; i < MATCHES; i++) {
+            Team home = entityManager.persist(new Team("Home " + i, "England"));
+            Team away = entityManager.persist(new Team("Away " + i, "Spain"));
+            Match match = entityManager.persist(
+                    new Match(home, away, LocalDateTime.now().plusDays(i + 1), "Test League"));
+
+            AiPrediction prediction = new AiPrediction();
+            prediction.setMatch(match);
+            prediction.setHomeWinProbability(new BigDecimal("40.00"));
+            prediction.setDrawProbability(new BigDecimal("30.00"));
+            prediction.setAwayWinProbability(new BigDecimal("30.00"));
+            prediction.setReasoning("Test reasoning");
+            prediction.setModelVersion("test");
+            entityManager.persist(prediction);
+
+            UserPrediction userPrediction = new UserPrediction(user, "Who wins?", "Home");
+            userPrediction.setMatch(match);
+            userPrediction.setSessionId("session-1");
+            entityManager.persist(userPrediction);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindAllMatchesFetchesTeamsInOneStatement() {
+        List<Match> matches = matchRepository.findAll();
+        matches.forEach(m -> assertNotNull(m.getHomeTeam().getName() + m.getAwayTeam().getName()));
+
+        assertEquals(MATCHES, matches.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testUpcomingMatchesFetchTeamsInOneStatement() {
+        List<Match> matches = matchRepository.findUpcomingMatches(LocalDateTime.now());
+        matches.forEach(m -> assertNotNull(m.getHomeTeam().getName() + m.getAwayTeam().getName()));
+
+        assertEquals(MATCHES, matches.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testNextFixtureBetweenTeamsMatchesEitherOrderInOneStatement() {
+        Match first = matchRepository.findByLeague("Test League").get(0);
+        Integer homeId = first.getHomeTeam().getId();
+        Integer awayId = first.getAwayTeam().getId();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Match> fixtures = matchRepository.findNextFixtures(awayId, homeId, LocalDateTime.now(), PageRequest.of(0, 1));
+
+        assertEquals(1, fixtures.size());
+        assertEquals(first.getId(), fixtures.get(0).getId());
+        assertNotNull(fixtures.get(0).getHomeTeam().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(matchRepository.findNextFixtures(homeId, awayId, first.getMatchDate(), PageRequest.of(0, 1)).isEmpty());
+    }
+
+    @Test
+    void testFindMatchByIdFetchesTeamsInOneStatement() {
+        Integer id = matchRepository.findByLeague("Test League").get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Match match = matchRepository.findById(id).orElseThrow();
+        assertNotNull(match.getHomeTeam().getName());
+        assertNotNull(match.getAwayTeam().getName());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindAllPredictionsFetchesMatchAndTeamsInOneStatement() {
+        List<AiPrediction> predictions = aiPredictionRepository.findAll();
+        predictions.forEach(p -> assertNotNull(
+                p.getMatch().getHomeTeam().getName() + p.getMatch().getAwayTeam().getName()));
+
+        assertEquals(MATCHES, predictions.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testUserPredictionsFetchUserMatchAndTeamsInOneStatement() {
+        List<UserPrediction> predictions = userPredictionRepository.findBySessionId("session-1");
+        predictions.forEach(p -> assertNotNull(p.getUser().getUsername()
+                + p.getMatch().getHomeTeam().getName() + p.getMatch().getAwayTeam().getName()));
+
+        assertEquals(MATCHES, predictions.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.match_predictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.service.PredictionResponseParser;
+import com.example.matchpredictor.service.PredictionResponseParser.Outcome;
+import com.example.matchpredictor.service.PredictionResponseParser.ParsedPrediction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PredictionResponseParserTest {
+
+    @Test
+    void testParseRequestedFormat() {
+        ParsedPrediction parsed = PredictionResponseParser.parse(
+                "HOME_WIN: 45\nDRAW: 30\nAWAY_WIN: 25\nREASONING: Home side unbeaten in five.");
+
+        assertProbabilities(parsed, "45.00", "30.00", "25.00");
+        assertEquals(Outcome.PARSED, parsed.outcome());
+        assertEquals("Home side unbeaten in five.", parsed.reasoning());
+    }
+
+    @Test
+    void testParseLooseFormatting() {
+        ParsedPrediction parsed = PredictionResponseParser.parse("""
+                Here is my prediction:
+                - **Home win:** 45.5%
+                - draw probability = 29,5 %
+                - **AWAY-WIN**: 25%
+                **Reasoning:** Both sides are in poor form.
+                """);
+
+        assertProbabilities(parsed, "45.50", "29.50", "25.00");
+        assertEquals(Outcome.PARSED, parsed.outcome());
+        assertEquals("Both sides are in poor form.", parsed.reasoning());
+    }
+
+    @Test
+    void testParseFieldsOnOneLine() {
+        ParsedPrediction parsed = PredictionResponseParser.parse("HOME_WIN: 50 DRAW: 20 AWAY_WIN: 30");
+
+        assertProbabilities(parsed, "50.00", "20.00", "30.00");
+        assertEquals(Outcome.PARSED, parsed.outcome());
+    }
+
+    @Test
+    void testNormalizeFractionsAndBadSums() {
+        ParsedPrediction fractions = PredictionResponseParser.parse("HOME_WIN: 0.45\nDRAW: 0.30\nAWAY_WIN: 0.25");
+        assertProbabilities(fractions, "45.00", "30.00", "25.00");
+        assertEquals(Outcome.NORMALIZED, fractions.outcome());
+
+        ParsedPrediction overHundred = PredictionResponseParser.parse("HOME_WIN: 50\nDRAW: 30\nAWAY_WIN: 30");
+        assertEquals(Outcome.NORMALIZED, overHundred.outcome());
+        assertEquals(0, new BigDecimal("100.00").compareTo(
+                overHundred.homeWin().add(overHundred.draw()).add(overHundred.awayWin())));
+    }
+
+    @Test
+    void testInferMissingProbability() {
+        ParsedPrediction parsed = PredictionResponseParser.parse("HOME_WIN: 60\nAWAY_WIN: 15\nREASONING: No draw given.");
+
+        assertProbabilities(parsed, "60.00", "25.00", "15.00");
+        assertEquals(Outcome.INFERRED, parsed.outcome());
+    }
+
+    @Test
+    void testDefaultWhenNothingUsable() {
+        String response = "I cannot predict this match.";
+        ParsedPrediction parsed = PredictionResponseParser.parse(response);
+
+        assertProbabilities(parsed, "33.33", "33.34", "33.33");
+        assertEquals(Outcome.DEFAULTED, parsed.outcome());
+
+        AiPrediction prediction = new AiPrediction();
+        parsed.applyTo(prediction, response);
+        assertEquals(new BigDecimal("0.50"), prediction.getConfidenceScore());
+        assertTrue(prediction.getReasoning().endsWith(response));
+    }
+
+    @Test
+    void testMultiLineReasoningKeepsProse() {
+        ParsedPrediction parsed = PredictionResponseParser.parse("""
+                HOME_WIN: 40
+                DRAW: 35
+                AWAY_WIN: 25
+                REASONING: The home side won the last meeting.
+                A draw at 1-1 would not surprise anyone.
+                Reasoning from past results favours the hosts.
+                """);
+
+        assertProbabilities(parsed, "40.00", "35.00", "25.00");
+        assertEquals("The home side won the last meeting. A draw at 1-1 would not surprise anyone. "
+                + "Reasoning from past results favours the hosts.", parsed.reasoning());
+    }
+
+    @Test
+    void testReasoningLinesDoNotOverwriteProbabilities() {
+        ParsedPrediction parsed = PredictionResponseParser.parse(
+                "HOME_WIN: 45\nDRAW: 30\nAWAY_WIN: 25\nREASONING: Strong hosts.\nAway: 2 wins in the last 5 meetings.\n"
+                        + "HOME_WIN: 90 would be too bold.");
+
+        assertProbabilities(parsed, "45.00", "30.00", "25.00");
+        assertEquals(Outcome.PARSED, parsed.outcome());
+        assertEquals("Strong hosts. Away: 2 wins in the last 5 meetings. HOME_WIN: 90 would be too bold.",
+                parsed.reasoning());
+    }
+
+    @Test
+    void testIncrementalChunksMatchWholeParse() {
+        String response = "HOME_WIN: 45\nDRAW: 30\nAWAY_WIN: 25\nREASONING: Home side unbeaten in five.";
+        Map<String, String> fields = new LinkedHashMap<>();
+        PredictionResponseParser parser = new PredictionResponseParser(fields::put);
+
+        // Split mid-label and mid-number, as streamed tokens are
+        for (int i = 0; i < response.length(); i += 3) {
+            parser.accept(response.substring(i, Math.min(response.length(), i + 3)));
+        }
+        ParsedPrediction parsed = parser.finish();
+
+        assertEquals(PredictionResponseParser.parse(response), parsed);
+        assertEquals(Map.of("HOME_WIN", "45", "DRAW", "30", "AWAY_WIN", "25"), fields);
+    }
+
+    private static void assertProbabilities(ParsedPrediction parsed, String home, String draw, String away) {
+        assertEquals(new BigDecimal(home), parsed.homeWin());
+        assertEquals(new BigDecimal(draw), parsed.draw());
+        assertEquals(new BigDecimal(away), parsed.awayWin());
+    }
+}
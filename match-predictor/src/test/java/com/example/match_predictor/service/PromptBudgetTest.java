@@ -0,0 +1,95 @@
+package com.example.match_predictor.service;
+
+import com.example.matchpredictor.service.PromptBudget;
+import com.example.matchpredictor.service.RagContext;
+import com.example.matchpredictor.service.TokenEstimator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PromptBudgetTest {
+
+    private static final String HEAD_TO_HEAD = "\nHEAD-TO-HEAD STATISTICS\nTotal matches: 4\nArsenal: 2 wins (50%)\n\n";
+    private static final String FORM = "RECENT FORM \nLast 5 matches:\n  vs Chelsea: 2-1 (W)\nForm: 1W-0D-0L\n\n";
+
+    @Test
+    void testContextWithinBudgetIsUnchanged() {
+        RagContext context = context(2, 2);
+
+        PromptBudget.Fitted fitted = context.toPromptText(10_000);
+
+        assertEquals(context.toPromptText(), fitted.text());
+        assertTrue(fitted.trimmedSections().isEmpty());
+        assertEquals(context.toPromptText(), context.toPromptText(0).text()); // 0 = no limit
+    }
+
+    @Test
+    void testLeastRelevantSectionsAreTrimmedFirst() {
+        RagContext context = context(5, 10);
+        int budget = TokenEstimator.estimate(context.toPromptText()) / 2;
+
+        PromptBudget.Fitted fitted = context.toPromptText(budget);
+
+        assertTrue(fitted.tokens() <= budget, fitted.tokens() + " > " + budget);
+        assertTrue(fitted.text().contains(HEAD_TO_HEAD));
+        assertTrue(fitted.text().contains(FORM));
+        assertTrue(fitted.text().contains("Historical match 1: Arsenal 2 - 1 Chelsea."));
+        assertTrue(fitted.trimmedSections().contains("similar-predictions"));
+        assertFalse(fitted.trimmedSections().contains("head-to-head"));
+        // Lowest-ranked predictions go first, the best match stays
+        assertTrue(fitted.text().contains("1. AI Prediction 1"));
+        assertFalse(fitted.text().contains("10. AI Prediction 10"));
+    }
+
+    @Test
+    void testSectionsKeepTheirPromptOrder() {
+        RagContext context = context(5, 10);
+
+        String text = context.toPromptText(TokenEstimator.estimate(context.toPromptText()) / 2).text();
+
+        int history = text.indexOf("=== HISTORICAL CONTEXT FROM CHROMADB ===");
+        int headToHead = text.indexOf("HEAD-TO-HEAD STATISTICS");
+        int form = text.indexOf("RECENT FORM");
+        assertTrue(history >= 0 && history < headToHead && headToHead < form, text);
+    }
+
+    @Test
+    void testShortenedDocumentsKeepTheirLeadingLines() {
+        String reasoning = "The hosts won both meetings this season. ".repeat(20);
+        String document = "1. AI Prediction for Arsenal vs Chelsea.\nAI reasoning: " + reasoning + "\nModel version: llama3.2\n";
+        PromptBudget.Section section = new PromptBudget.Section("similar-predictions", 0, document, "", List.of(document));
+
+        String text = PromptBudget.fit(List.of(section), 60).text();
+
+        assertTrue(text.startsWith("1. AI Prediction for Arsenal vs Chelsea.\nAI reasoning: The hosts won"), text);
+        assertTrue(text.endsWith("season.\n"), text);
+        assertFalse(text.contains("Model version"));
+        assertTrue(TokenEstimator.estimate(text) <= 60);
+    }
+
+    private static RagContext context(int historyDocuments, int similarPredictions) {
+        StringBuilder history = new StringBuilder("=== HISTORICAL CONTEXT FROM CHROMADB ===\n\n");
+        for (int i = 1; i <= historyDocuments; i++) {
+            history.append("Historical match ").append(i).append(": Arsenal 2 - 1 Chelsea.\n")
+                    .append("Venue: Emirates Stadium, Date: 2025-0").append(i).append("-01.\n")
+                    .append("This was a Premier League match.\n\n");
+        }
+
+        List<String> documents = new ArrayList<>();
+        for (int i = 1; i <= similarPredictions; i++) {
+            documents.add(i + ". AI Prediction " + i + " for Arsenal vs Chelsea.\nAI reasoning: "
+                    + "Arsenal have won the last two meetings at home and Chelsea concede late. ".repeat(4) + "\n");
+        }
+
+        RagContext context = new RagContext();
+        context.setHistoricalContext(history.toString());
+        context.setHeadToHead(HEAD_TO_HEAD);
+        context.setTeamForm(FORM);
+        context.setSimilarPredictions("\n=== SIMILAR PAST PREDICTIONS ===\n" + String.join("", documents));
+        context.setSimilarPredictionDocuments(documents);
+        return context;
+    }
+}
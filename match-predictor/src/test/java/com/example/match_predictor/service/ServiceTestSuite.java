@@ -9,6 +9,7 @@ import com.example.matchpredictor.repository.MatchRepository;
 import com.example.matchpredictor.repository.TeamRepository;
 import com.example.matchpredictor.service.AiPredictionService;
 import com.example.matchpredictor.service.MatchService;
+import com.example.matchpredictor.service.OllamaGateway;
 import com.example.matchpredictor.service.TeamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,7 +17,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.ai.ollama.OllamaChatClient;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -48,7 +48,7 @@ public class ServiceTestSuite {
     private AiPredictionRepository aiPredictionRepository;
 
     @Mock
-    private OllamaChatClient ollamaChatClient;
+    private OllamaGateway ollamaGateway;
 
     @Mock
     private MatchService matchServiceForAI;
@@ -0,0 +1,102 @@
+package com.example.match_predictor.service;
+
+import com.example.matchpredictor.entity.AiPrediction;
+import com.example.matchpredictor.service.PredictionResponseParser;
+import com.example.matchpredictor.service.PredictionResponseParser.Outcome;
+import com.example.matchpredictor.service.PredictionResponseParser.ParsedPrediction;
+import com.example.matchpredictor.service.StructuredPredictionDecoder;
+import com.example.matchpredictor.service.StructuredPredictionDecoder.SchemaViolation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StructuredPredictionDecoderTest {
+
+    @Test
+    void testDecodeSchemaAnswer() {
+        ParsedPrediction parsed = StructuredPredictionDecoder.decode("""
+                {"home_win": 45, "draw": 30, "away_win": 25,
+                 "cited_facts": ["3-1 head-to-head record", "Home side unbeaten in five"],
+                 "reasoning": "The retrieved head-to-head favours the hosts.",
+                 "confidence": 0.68}""");
+
+        assertEquals(new BigDecimal("45.00"), parsed.homeWin());
+        assertEquals(new BigDecimal("30.00"), parsed.draw());
+        assertEquals(new BigDecimal("25.00"), parsed.awayWin());
+        assertEquals(Outcome.PARSED, parsed.outcome());
+        assertEquals(List.of("3-1 head-to-head record", "Home side unbeaten in five"), parsed.citedFacts());
+
+        AiPrediction prediction = new AiPrediction();
+        parsed.applyTo(prediction, "");
+        assertEquals(new BigDecimal("0.68"), prediction.getConfidenceScore());
+        assertEquals("The retrieved head-to-head favours the hosts.", prediction.getReasoning());
+    }
+
+    @Test
+    void testRepairCommonSlips() {
+        ParsedPrediction parsed = StructuredPredictionDecoder.decode("""
+                Sure! Here is the prediction:
+                ```json
+                {homeWin: "0.5", 'Draw': 0.3, "AWAY-WIN": "0,2",
+                 "reasoning": ["Hosts won the last meeting.", "Visitors concede late."],
+                 "confidence": 70,}
+                ```""");
+
+        assertEquals(new BigDecimal("50.00"), parsed.homeWin());
+        assertEquals(new BigDecimal("30.00"), parsed.draw());
+        assertEquals(new BigDecimal("20.00"), parsed.awayWin());
+        assertEquals(Outcome.PARSED, parsed.outcome());
+        assertEquals("Hosts won the last meeting. Visitors concede late.", parsed.reasoning());
+        assertEquals(new BigDecimal("0.70"), parsed.confidence());
+    }
+
+    @Test
+    void testNormalizeProbabilities() {
+        ParsedPrediction parsed = StructuredPredictionDecoder.decode(
+                "{\"home_win\": \"50%\", \"draw\": 30, \"away_win\": 30, \"reasoning\": \"Close game.\"}");
+
+        assertEquals(Outcome.NORMALIZED, parsed.outcome());
+        assertEquals(0, new BigDecimal("100").compareTo(parsed.homeWin().add(parsed.draw()).add(parsed.awayWin())));
+    }
+
+    @Test
+    void testMissingConfidenceFallsBackToDefault() {
+        ParsedPrediction parsed = StructuredPredictionDecoder.decode(
+                "{\"home_win\": 40, \"draw\": 35, \"away_win\": 25, \"reasoning\": \"Even sides.\"}");
+
+        assertNull(parsed.confidence());
+        assertTrue(parsed.citedFacts().isEmpty());
+        AiPrediction prediction = new AiPrediction();
+        parsed.applyTo(prediction, "");
+        assertEquals(new BigDecimal("0.75"), prediction.getConfidenceScore());
+    }
+
+    @Test
+    void testSchemaViolations() {
+        assertViolation("I think the home side will win.", "not a JSON object");
+        assertViolation("{\"home_win\": 45, \"draw\": 30, \"reasoning\": \"x\"}", "\"away_win\" is missing");
+        assertViolation("{\"home_win\": 45, \"draw\": 30, \"away_win\": 25}", "\"reasoning\" is missing");
+        assertViolation("{\"home_win\": 145, \"draw\": 30, \"away_win\": 25, \"reasoning\": \"x\"}", "between 0 and 100");
+        assertViolation("{\"home_win\": \"likely\", \"draw\": 30, \"away_win\": 25, \"reasoning\": \"x\"}", "must be a number");
+        assertViolation("{\"home_win\": 45, \"draw\": 30, \"away_win\": 25, \"reasoning\": \"The hosts", "cut off");
+    }
+
+    @Test
+    void testLineParserSalvagesRejectedJson() {
+        // What generateAnswer falls back to once the retries are used up
+        ParsedPrediction parsed = PredictionResponseParser.parse("{\"home_win\": 60, \"away_win\": 15, \"reasoning\": ");
+
+        assertEquals(new BigDecimal("60.00"), parsed.homeWin());
+        assertEquals(new BigDecimal("25.00"), parsed.draw());
+        assertEquals(new BigDecimal("15.00"), parsed.awayWin());
+        assertEquals(Outcome.INFERRED, parsed.outcome());
+    }
+
+    private static void assertViolation(String response, String expectedMessage) {
+        SchemaViolation violation = assertThrows(SchemaViolation.class, () -> StructuredPredictionDecoder.decode(response));
+        assertTrue(violation.getMessage().contains(expectedMessage), violation.getMessage());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.match_predictor.service;
+
+import com.example.matchpredictor.entity.Team;
+import com.example.matchpredictor.repository.TeamRepository;
+import com.example.matchpredictor.service.TeamLookupIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TeamLookupIndexTest {
+
+    private TeamLookupIndex index;
+
+    @BeforeEach
+    void setUp() {
+        TeamRepository teamRepository = mock(TeamRepository.class);
+        when(teamRepository.findAllOrderByName()).thenReturn(List.of(
+                team(1, "Manchester United"), team(2, "Real Madrid"), team(3, "Leicester City")));
+
+        index = new TeamLookupIndex();
+        ReflectionTestUtils.setField(index, "teamRepository", teamRepository);
+    }
+
+    @Test
+    void testDistinctiveWordsResolve() {
+        assertEquals(List.of("Real Madrid", "Manchester United"),
+                index.findMentions("Can Madrid beat man utd?").stream().map(Team::getName).toList());
+        assertEquals("Leicester City", index.resolve("leicester").orElseThrow().getName());
+    }
+
+    @Test
+    void testGenericWordsAreNotMentions() {
+        assertTrue(index.findMentions("Is this a real contest? The city is united behind them.").isEmpty());
+        assertTrue(index.resolve("united").isEmpty());
+    }
+
+    private static Team team(int id, String name) {
+        Team team = new Team(name, "England");
+        team.setId(id);
+        return team;
+    }
+}